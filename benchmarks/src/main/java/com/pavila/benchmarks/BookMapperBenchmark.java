@@ -0,0 +1,69 @@
+package com.pavila.benchmarks;
+
+import com.pavila.dto.BookResponseDTO;
+import com.pavila.dto.PaginatedBooksResponseDTO;
+import com.pavila.entity.Book;
+import com.pavila.mapper.BookMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code BookMapper} as used by {@code GET /api/books/{id}} (one book) and {@code GET /api/books}
+ * (one page of {@code pageSize} books, with or without totals).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookMapperBenchmark {
+
+    @Param({"1", "20", "100"})
+    private int pageSize;
+
+    private Book book;
+    private Page<Book> page;
+    private Slice<Book> slice;
+
+    @Setup
+    public void setUp() {
+        List<Book> books = Datasets.books(pageSize);
+        PageRequest pageable = PageRequest.of(0, pageSize);
+        book = books.get(0);
+        page = new PageImpl<>(books, pageable, 10_000);
+        slice = new SliceImpl<>(books, pageable, true);
+    }
+
+    @Benchmark
+    public BookResponseDTO mapToDTO() {
+        return BookMapper.mapToDTO(book);
+    }
+
+    @Benchmark
+    public PaginatedBooksResponseDTO mapToPaginatedDTO() {
+        return BookMapper.mapToPaginatedDTO(page);
+    }
+
+    @Benchmark
+    public PaginatedBooksResponseDTO mapSliceToPaginatedDTO() {
+        return BookMapper.mapToPaginatedDTO(slice);
+    }
+}
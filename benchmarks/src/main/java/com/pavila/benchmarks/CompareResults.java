@@ -0,0 +1,91 @@
+package com.pavila.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Compares two JMH JSON result files, typically of the previous and the current release:
+ * <pre>
+ * java -cp target/benchmarks.jar com.pavila.benchmarks.CompareResults baseline.json jmh-result.json [threshold %]
+ * </pre>
+ * Prints the change of the score and of the allocated bytes per operation of every benchmark and parameter
+ * set, and exits with status 1 when any of them got worse by more than the threshold (10% by default).
+ * Allocation changes below one byte per operation are ignored as measurement noise.
+ */
+public class CompareResults {
+
+    private static final String ALLOCATION = "gc.alloc.rate.norm";
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: CompareResults <baseline.json> <current.json> [threshold %]");
+            System.exit(2);
+        }
+        Map<String, Result> baseline = read(new File(args[0]));
+        Map<String, Result> current = read(new File(args[1]));
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+
+        boolean regression = false;
+        System.out.printf(Locale.ROOT, "%-72s %14s %14s %9s %12s %12s %9s%n",
+                "benchmark", "baseline", "current", "change", "B/op before", "B/op after", "change");
+        for (Map.Entry<String, Result> entry : current.entrySet()) {
+            Result before = baseline.get(entry.getKey());
+            Result after = entry.getValue();
+            if (before == null) {
+                System.out.printf(Locale.ROOT, "%-72s %14s %14.3f %9s %12s %12.1f %9s%n",
+                        entry.getKey(), "-", after.score(), "new", "-", after.allocation(), "");
+                continue;
+            }
+            double scoreChange = change(before.score(), after.score());
+            double allocationChange = change(before.allocation(), after.allocation());
+            boolean worse = after.higherIsBetter() ? -scoreChange > threshold : scoreChange > threshold;
+            worse |= allocationChange > threshold && after.allocation() - before.allocation() >= 1;
+            regression |= worse;
+            System.out.printf(Locale.ROOT, "%-72s %14.3f %14.3f %8.1f%% %12.1f %12.1f %8.1f%%%s%n",
+                    entry.getKey(), before.score(), after.score(), scoreChange,
+                    before.allocation(), after.allocation(), allocationChange, worse ? "  REGRESSION" : "");
+        }
+        System.exit(regression ? 1 : 0);
+    }
+
+    private static Map<String, Result> read(File file) throws IOException {
+        Map<String, Result> results = new TreeMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            JsonNode primary = run.path("primaryMetric");
+            JsonNode allocation = run.path("secondaryMetrics").path(ALLOCATION);
+            results.put(key(run), new Result(
+                    primary.path("score").asDouble(),
+                    primary.path("scoreUnit").asText(),
+                    allocation.isMissingNode() ? Double.NaN : allocation.path("score").asDouble(),
+                    "thrpt".equals(run.path("mode").asText())));
+        }
+        return results;
+    }
+
+    private static String key(JsonNode run) {
+        Map<String, String> params = new LinkedHashMap<>();
+        run.path("params").fields().forEachRemaining(param -> params.put(param.getKey(), param.getValue().asText()));
+        String benchmark = run.path("benchmark").asText().replace("com.pavila.benchmarks.", "");
+        return params.isEmpty() ? benchmark : benchmark + params.entrySet().stream()
+                .map(param -> param.getKey() + "=" + param.getValue())
+                .collect(Collectors.joining(",", "(", ")"));
+    }
+
+    private static double change(double before, double after) {
+        if (Double.isNaN(before) || Double.isNaN(after) || before == 0) {
+            return 0;
+        }
+        return (after - before) / before * 100;
+    }
+
+    private record Result(double score, String unit, double allocation, boolean higherIsBetter) {
+    }
+}
@@ -0,0 +1,84 @@
+package com.pavila.benchmarks;
+
+import com.pavila.dto.BookDetailsDTO;
+import com.pavila.dto.ReviewResponseDTO;
+import com.pavila.entity.Book;
+import com.pavila.entity.Review;
+import com.pavila.mapper.BookMapper;
+import com.pavila.mapper.ReviewMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic test data shaped like the rows the services read from H2. The same seed gives the same
+ * data on every run, so results of different releases compare like for like.
+ */
+final class Datasets {
+
+    private static final long SEED = 42L;
+    private static final String[] WORDS = {"shadow", "river", "empire", "glass", "winter", "code", "garden",
+            "silent", "machine", "ocean", "letters", "northern", "fire", "memory", "stone", "light"};
+
+    private Datasets() {
+    }
+
+    static List<Book> books(int size) {
+        Random random = new Random(SEED);
+        List<Book> books = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int reviewCount = random.nextInt(500);
+            long ratingSum = reviewCount == 0 ? 0 : reviewCount + (long) random.nextInt(reviewCount * 4 + 1);
+            books.add(Book.builder()
+                    .id(i + 1L)
+                    .title(words(random, 2 + random.nextInt(5)))
+                    .author(words(random, 2))
+                    .publicationYear(String.valueOf(1900 + random.nextInt(125)))
+                    .isbn(String.valueOf(9_780_000_000_000L + random.nextInt(1_000_000_000)))
+                    .averageRating(BookMapper.calculateAverage(ratingSum, reviewCount))
+                    .reviewCount(reviewCount)
+                    .ratingSum(ratingSum)
+                    .build());
+        }
+        return books;
+    }
+
+    static List<Review> reviews(long bookId, int size) {
+        Random random = new Random(SEED);
+        List<Review> reviews = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            reviews.add(Review.builder()
+                    .id(i + 1L)
+                    .bookId(bookId)
+                    .rating(1 + random.nextInt(5))
+                    .comment(words(random, 5 + random.nextInt(40)))
+                    .build());
+        }
+        return reviews;
+    }
+
+    /**
+     * The response of {@code GET /api/books/{id}} with the first {@code reviews} reviews of the book.
+     */
+    static BookDetailsDTO bookDetails(int reviews) {
+        List<ReviewResponseDTO> page = ReviewMapper.mapToReviewResponseDTOList(reviews(1L, reviews));
+        BookDetailsDTO details = new BookDetailsDTO();
+        details.setBook(BookMapper.mapToDTO(books(1).get(0)));
+        details.setReviews(page);
+        details.setNextReviewsCursor(page.isEmpty() ? null : ReviewMapper.encodeCursor((long) page.size()));
+        details.setReviewsAvailable(true);
+        return details;
+    }
+
+    private static String words(Random random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,58 @@
+package com.pavila.benchmarks;
+
+import com.pavila.mapper.BookMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The average rating that book-msvc recomputes on every review event. Each invocation takes the next of
+ * {@code INPUTS} precomputed sum/count pairs so the JIT cannot fold the result into a constant.
+ * {@code primitiveReference} gives the same half-up result with double arithmetic and is only there
+ * as a floor to read the BigDecimal cost against.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RatingMathBenchmark {
+
+    private static final int INPUTS = 1024;
+
+    private final long[] sums = new long[INPUTS];
+    private final int[] counts = new int[INPUTS];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42L);
+        for (int i = 0; i < INPUTS; i++) {
+            counts[i] = 1 + random.nextInt(10_000);
+            sums[i] = counts[i] + (long) random.nextInt(counts[i] * 4 + 1);
+        }
+    }
+
+    @Benchmark
+    public double calculateAverage() {
+        int i = next++ & (INPUTS - 1);
+        return BookMapper.calculateAverage(sums[i], counts[i]);
+    }
+
+    @Benchmark
+    public double primitiveReference() {
+        int i = next++ & (INPUTS - 1);
+        return Math.round(sums[i] * 10.0 / counts[i]) / 10.0;
+    }
+}
@@ -0,0 +1,46 @@
+package com.pavila.benchmarks;
+
+import com.pavila.dto.ReviewResponseDTO;
+import com.pavila.entity.Review;
+import com.pavila.mapper.ReviewMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code ReviewMapper.mapToReviewResponseDTOList} over a page of {@code reviews} reviews of one book.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReviewMapperBenchmark {
+
+    @Param({"1", "20", "100"})
+    private int reviews;
+
+    private List<Review> page;
+
+    @Setup
+    public void setUp() {
+        page = Datasets.reviews(1L, reviews);
+    }
+
+    @Benchmark
+    public List<ReviewResponseDTO> mapToReviewResponseDTOList() {
+        return ReviewMapper.mapToReviewResponseDTOList(page);
+    }
+}
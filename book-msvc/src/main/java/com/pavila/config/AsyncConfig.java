@@ -0,0 +1,40 @@
+package com.pavila.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class AsyncConfig {
+
+    /**
+     * Bounded executor for the review-msvc calls made while assembling book details, so a slow
+     * review service cannot pile up unbounded work; rejected tasks degrade to a response without reviews.
+     * With virtual threads every call gets its own thread, limited to {@code pool-size + queue-capacity}
+     * calls in flight, which is the same number the pool admits with its queue.
+     */
+    @Bean
+    public AsyncTaskExecutor reviewsTaskExecutor(Environment environment,
+                                                 @Value("${books.reviews.pool-size:16}") int poolSize,
+                                                 @Value("${books.reviews.queue-capacity:100}") int queueCapacity) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("reviews-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(poolSize + queueCapacity);
+            executor.setRejectTasksWhenLimitReached(true);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("reviews-");
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,14 @@
+package com.pavila.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * The caching advice runs outside the transactional one so that {@code @CacheEvict} fires after the
+ * surrounding transaction has committed, not before a concurrent read could still see the old row.
+ */
+@Configuration
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+public class CacheConfig {
+}
@@ -0,0 +1,63 @@
+package com.pavila.config;
+
+import com.pavila.exception.ResourceNotFoundException;
+import com.pavila.service.impl.RatingReconciler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.listener.CommonErrorHandler;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.ExponentialBackOffWithMaxRetries;
+
+import java.nio.charset.StandardCharsets;
+
+@Slf4j
+@Configuration
+public class ReviewEventsErrorHandlerConfig {
+
+    /**
+     * Error handler of the batch review consumer, bound through {@code common-error-handler-bean-name}.
+     * The consumer reports the first record of the book that failed; records before it are committed and
+     * the rest is redelivered with exponential backoff. Once the retries run out the record is skipped and
+     * its book, taken from the record key, is handed to {@link RatingReconciler} to be recomputed.
+     * A book that no longer exists fails the same way on every attempt and leaves nothing to recompute,
+     * so its record is skipped right away.
+     */
+    @Bean
+    public CommonErrorHandler reviewEventsErrorHandler(RatingReconciler ratingReconciler,
+                                                       @Value("${books.review-events.retry.max-retries:4}") int maxRetries,
+                                                       @Value("${books.review-events.retry.initial-interval-ms:1000}") long initialIntervalMs,
+                                                       @Value("${books.review-events.retry.max-interval-ms:10000}") long maxIntervalMs) {
+        ExponentialBackOffWithMaxRetries backOff = new ExponentialBackOffWithMaxRetries(maxRetries);
+        backOff.setInitialInterval(initialIntervalMs);
+        backOff.setMaxInterval(maxIntervalMs);
+        DefaultErrorHandler handler = new DefaultErrorHandler((record, exception) -> {
+            if (isMissingBook(exception)) {
+                log.info("Skipped review event at {}-{}@{} for a book that no longer exists: {}",
+                        record.topic(), record.partition(), record.offset(), exception.getMessage());
+                return;
+            }
+            if (!(record.key() instanceof byte[] key)) {
+                log.error("Skipped review event at {}-{}@{} without a bookId key after retries",
+                        record.topic(), record.partition(), record.offset(), exception);
+                return;
+            }
+            Long bookId = Long.valueOf(new String(key, StandardCharsets.UTF_8));
+            log.error("Skipped review event at {}-{}@{} for bookId: {} after retries, scheduling a recompute",
+                    record.topic(), record.partition(), record.offset(), bookId, exception);
+            ratingReconciler.schedule(bookId);
+        }, backOff);
+        handler.addNotRetryableExceptions(ResourceNotFoundException.class);
+        return handler;
+    }
+
+    private static boolean isMissingBook(Throwable exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ResourceNotFoundException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,23 @@
+package com.pavila.config;
+
+import com.pavila.commons.schema.SchemaIndexVerifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+@Configuration
+public class SchemaIndexConfig {
+
+    /**
+     * Lookups by ISBN and listings ordered or filtered by rating.
+     */
+    @Bean
+    public SchemaIndexVerifier booksIndexVerifier(DataSource dataSource) {
+        return new SchemaIndexVerifier(dataSource, "books", Map.of(
+                "idx_books_isbn", List.of("isbn"),
+                "idx_books_average_rating", List.of("average_rating")));
+    }
+}
@@ -5,6 +5,8 @@ public final class BookConstants {
     public static final String  MESSAGE_201 = "Book created successfully";
     public static final String  STATUS_200 = "200";
     public static final String MESSAGE_200_UPDATE = "Book updated successfully";
-    public static final String BOOK_DELETED = "BOOK_DELETED";
+    public static final int MAX_IDS_PAGE_SIZE = 10000;
+    public static final int MAX_BATCH_ERRORS = 1000;
+    public static final String BOOK_DETAILS_CACHE = "bookDetails";
 
 }
@@ -4,13 +4,16 @@ import com.pavila.constants.BookConstants;
 import com.pavila.dto.*;
 import com.pavila.service.IBookService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -23,6 +26,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.util.List;
+
 @Tag(
         name = "CRUD REST APIs for Books",
         description = "CRUD REST APIs for managing books: Create, Read, Update and Delete book records"
@@ -64,20 +70,47 @@ public class BookController {
     }
 
 
+    @Operation(
+            summary = "Create Books in batch REST API",
+            description = "REST API to import many books at once from a JSON array or an NDJSON stream. " +
+                    "Valid books are inserted in batches; invalid ones are reported by their position in the body"
+    )
+    @io.swagger.v3.oas.annotations.parameters.RequestBody(
+            content = @Content(array = @ArraySchema(schema = @Schema(implementation = BookRequestDTO.class)))
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Batch processed, see created, rejected and errors"),
+            @ApiResponse(responseCode = "500", description = "HTTP Status INTERNAL SERVER ERROR",
+                    content = @Content(schema = @Schema(implementation = ErrorResponseDTO.class)))
+    })
+    @PostMapping(value = "/books/batch",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<BookBatchResponseDTO> createBooks(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(iBookService.createBooks(request.getInputStream()));
+    }
+
+
     @Operation(
             summary = "Get All Books REST API",
-            description = "REST API to retrieve all books from the Book Management System"
+            description = "REST API to retrieve all books from the Book Management System. " +
+                    "Pass 'after=0' and then the 'next' value of each page to seek by book ID instead of using page offsets, " +
+                    "and 'count=false' to skip computing totalElements and totalPages. Seek pages are always ordered by " +
+                    "ascending ID, so 'after' cannot be combined with another sort"
     )
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Books retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Sort not supported with 'after'",
+                    content = @Content(schema = @Schema(implementation = ErrorResponseDTO.class))),
             @ApiResponse(responseCode = "404", description = "Books not found",
                     content = @Content(schema = @Schema(implementation = ErrorResponseDTO.class))),
             @ApiResponse(responseCode = "500", description = "Internal Server Error",
                     content = @Content(schema = @Schema(implementation = ErrorResponseDTO.class)))
     })
     @GetMapping("/books")
-    public ResponseEntity<PaginatedBooksResponseDTO> findAll(@ParameterObject Pageable pageable){
-        return ResponseEntity.ok().body(iBookService.findAllBook(pageable));
+    public ResponseEntity<PaginatedBooksResponseDTO> findAll(@ParameterObject Pageable pageable,
+                                                             @PositiveOrZero @RequestParam(required = false) Long after,
+                                                             @RequestParam(defaultValue = "true") boolean count){
+        return ResponseEntity.ok().body(iBookService.findAllBook(pageable, after, count));
     }
 
     @Operation(
@@ -162,6 +195,21 @@ public class BookController {
         return ResponseEntity.ok().body(bookInfo);
     }
 
+    @Operation(
+            summary = "Get Book IDs REST API",
+            description = "REST API to list book IDs in ascending order after a given ID, used to seed existence indexes"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Book IDs retrieved successfully"),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error",
+                    content = @Content(schema = @Schema(implementation = ErrorResponseDTO.class)))
+    })
+    @GetMapping("/books/ids")
+    public ResponseEntity<List<Long>> findBookIds(@PositiveOrZero @RequestParam(defaultValue = "0") Long after,
+                                                  @Positive @RequestParam(name = "sz", defaultValue = "1000") Integer size){
+        return ResponseEntity.ok(iBookService.findBookIds(after, size));
+    }
+
     @GetMapping("/{id}/exists")
     public ResponseEntity<Boolean> exists(@PathVariable Long id) {
         boolean exists = iBookService.existsById(id);
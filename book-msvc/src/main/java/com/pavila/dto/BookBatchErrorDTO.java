@@ -0,0 +1,29 @@
+package com.pavila.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Map;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@Schema(
+        name = "BookBatchError",
+        description = "Error for a single item of a batch book import"
+)
+public class BookBatchErrorDTO {
+
+    @Schema(
+            description = "Zero-based position of the item in the request body",
+            example = "42"
+    )
+    private long index;
+
+    @Schema(
+            description = "Validation messages by field, or a single 'item' entry for unreadable items"
+    )
+    private Map<String, String> errors;
+}
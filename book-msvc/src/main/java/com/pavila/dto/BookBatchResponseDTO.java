@@ -0,0 +1,44 @@
+package com.pavila.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(
+        name = "BookBatchResponse",
+        description = "Outcome of a batch book import"
+)
+public class BookBatchResponseDTO {
+
+    @Schema(
+            description = "Number of items read from the request body",
+            example = "1000"
+    )
+    private long received;
+
+    @Schema(
+            description = "Number of books created",
+            example = "998"
+    )
+    private long created;
+
+    @Schema(
+            description = "Number of items rejected; only the first ones are detailed in 'errors'",
+            example = "2"
+    )
+    private long rejected;
+
+    @Schema(
+            description = "Items that were rejected, with the reason"
+    )
+    private List<BookBatchErrorDTO> errors = new ArrayList<>();
+}
@@ -8,4 +8,6 @@ import java.util.List;
 public class BookDetailsDTO {
     private BookResponseDTO book;
     private List<ReviewResponseDTO> reviews;
+    private String nextReviewsCursor;
+    private boolean reviewsAvailable;
 }
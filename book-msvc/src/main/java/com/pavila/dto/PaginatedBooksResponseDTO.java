@@ -15,10 +15,11 @@ public class PaginatedBooksResponseDTO {
     private List<BookResponseDTO> content;
     private int page;
     private int size;
-    private long totalElements;
-    private int totalPages;
+    private Long totalElements;
+    private Integer totalPages;
     private boolean hasNext;
     private boolean hasPrevious;
     private boolean first;
     private boolean last;
+    private Long next;
 }
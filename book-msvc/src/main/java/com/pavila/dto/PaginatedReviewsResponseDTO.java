@@ -0,0 +1,19 @@
+package com.pavila.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginatedReviewsResponseDTO {
+    private List<ReviewResponseDTO> content;
+    private int size;
+    private boolean hasNext;
+    private String next;
+}
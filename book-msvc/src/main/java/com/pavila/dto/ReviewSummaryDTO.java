@@ -0,0 +1,19 @@
+package com.pavila.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewSummaryDTO {
+    private Long bookId;
+    private Long reviewCount;
+    private Long ratingSum;
+    private Double averageRating;
+}
@@ -0,0 +1,39 @@
+package com.pavila.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Id of a review event whose change is already in the running totals of its book.
+ */
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Getter
+@Setter
+@Entity
+@Table(name = "applied_review_events")
+public class AppliedReviewEvent implements Persistable<UUID> {
+
+    @Id
+    private UUID eventId;
+
+    private Long bookId;
+    private LocalDateTime appliedAt;
+
+    @Override
+    public UUID getId() {
+        return eventId;
+    }
+
+    // Rows are only ever inserted, so saving skips the lookup a merge would do first
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
@@ -14,7 +14,8 @@ import lombok.*;
 public class Book extends BaseEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "book_seq")
+    @SequenceGenerator(name = "book_seq", sequenceName = "book_seq", allocationSize = 50)
     private Long id;
 
     private String title;
@@ -24,4 +25,5 @@ public class Book extends BaseEntity {
     private String isbn;
     private Double averageRating;
     private Integer reviewCount;
+    private Long ratingSum;
 }
@@ -1,38 +1,126 @@
 package com.pavila.functions;
 
-import com.pavila.dto.ReviewEvent;
+import com.pavila.commons.metrics.ConsumerMetrics;
+import com.pavila.events.EventType;
+import com.pavila.events.ReviewEvent;
 import com.pavila.service.IBookService;
+import com.pavila.service.impl.RatingReconciler;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.listener.BatchListenerFailedException;
 
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.function.Consumer;
 
 @Configuration
 @Slf4j
 public class BookFunctions {
 
+    private static final Set<EventType> RATING_EVENT_TYPES = EnumSet.of(
+            EventType.REVIEW_CREATED, EventType.REVIEW_DELETED, EventType.RATING_UPDATE);
+
     @Bean
-    public Consumer<ReviewEvent> updateBookFromReviewEvent(IBookService iBookService) {
+    public Consumer<ReviewEvent> updateBookFromReviewEvent(IBookService iBookService, RatingReconciler ratingReconciler,
+                                                           MeterRegistry meterRegistry) {
+        ConsumerMetrics metrics = new ConsumerMetrics(meterRegistry, "books", "updateBookFromReviewEvent-in-0");
+
         return event -> {
             Long bookId = event.bookId();
-            String eventType = event.eventType();
+            EventType eventType = event.eventType();
 
             log.info("Received review event '{}' for bookId: {}", eventType, bookId);
 
-            switch (eventType) {
-                case "REVIEW_CREATED":
-                case "REVIEW_DELETED":
-                    iBookService.updateBookRatingAndCount(bookId);
-                    break;
+            metrics.handle(eventType, () -> {
+                if (RATING_EVENT_TYPES.contains(eventType)) {
+                    if (iBookService.applyReviewEvent(event)) {
+                        ratingReconciler.schedule(bookId);
+                    }
+                } else if (eventType == EventType.COMMENT_UPDATE) {
+                    iBookService.evictBookDetails(bookId);
+                } else {
+                    log.warn("Unhandled event type '{}' for bookId: {}", eventType, bookId);
+                }
+            });
+        };
+    }
+
+    /**
+     * Batch variant of {@link #updateBookFromReviewEvent}: events of one poll are collapsed by bookId so every
+     * distinct book is updated once per batch. The batch window is driven by the Kafka consumer settings of the
+     * binding ({@code max.poll.records}, {@code fetch.min.bytes}, {@code fetch.max.wait.ms}).
+     */
+    @Bean
+    public Consumer<List<ReviewEvent>> updateBookFromReviewEvents(IBookService iBookService,
+                                                                 RatingReconciler ratingReconciler,
+                                                                 MeterRegistry meterRegistry) {
+        DistributionSummary batchSize = DistributionSummary.builder("books.review.events.batch.size")
+                .description("Number of review events received per batch")
+                .tag("binding", "updateBookFromReviewEvents-in-0")
+                .register(meterRegistry);
+        DistributionSummary coalescingRatio = DistributionSummary.builder("books.review.events.coalescing.ratio")
+                .description("Review events received per distinct book updated")
+                .tag("binding", "updateBookFromReviewEvents-in-0")
+                .register(meterRegistry);
+        ConsumerMetrics metrics = new ConsumerMetrics(meterRegistry, "books", "updateBookFromReviewEvents-in-0");
 
-                case "RATING_UPDATE":
-                    iBookService.updateBookRating(bookId);
-                    break;
+        return events -> metrics.handleBatch(() -> {
+            Map<Long, List<ReviewEvent>> ratingEvents = new LinkedHashMap<>();
+            Map<Long, Integer> firstIndex = new HashMap<>();
+            Set<Long> commentOnly = new LinkedHashSet<>();
 
-                default:
-                    log.warn("Unhandled event type '{}' for bookId: {}", eventType, bookId);
+            for (int i = 0; i < events.size(); i++) {
+                ReviewEvent event = events.get(i);
+                metrics.consumed(event.eventType());
+                if (event.bookId() != null && RATING_EVENT_TYPES.contains(event.eventType())) {
+                    ratingEvents.computeIfAbsent(event.bookId(), bookId -> new ArrayList<>()).add(event);
+                    firstIndex.putIfAbsent(event.bookId(), i);
+                } else if (event.bookId() != null && event.eventType() == EventType.COMMENT_UPDATE) {
+                    commentOnly.add(event.bookId());
+                } else {
+                    log.warn("Unhandled event type '{}' for bookId: {}", event.eventType(), event.bookId());
+                }
             }
-        };
+            // Rating updates already evict the cached details of their book
+            commentOnly.removeAll(ratingEvents.keySet());
+
+            batchSize.record(events.size());
+            int distinctBooks = ratingEvents.size() + commentOnly.size();
+            if (distinctBooks > 0) {
+                coalescingRatio.record((double) events.size() / distinctBooks);
+            }
+            log.info("Received batch of {} review events for {} distinct books", events.size(), distinctBooks);
+
+            // Evictions first: if a book fails below, the records before it are committed
+            commentOnly.forEach(iBookService::evictBookDetails);
+            ratingEvents.forEach((bookId, bookEvents) ->
+                    applyDelta(iBookService, ratingReconciler, bookId, bookEvents, firstIndex.get(bookId)));
+        });
+    }
+
+    /**
+     * Books are applied in the order of their first event, so every record before the first event of a failing
+     * book belongs to a book already updated. The failure points the error handler at that record: it commits
+     * the ones before and redelivers the rest, whose already applied events are then skipped by id.
+     */
+    private void applyDelta(IBookService iBookService, RatingReconciler ratingReconciler, Long bookId,
+                            List<ReviewEvent> events, int firstIndex) {
+        try {
+            if (iBookService.applyReviewEvents(bookId, events)) {
+                ratingReconciler.schedule(bookId);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not apply {} review events for bookId: {}: {}", events.size(), bookId, e.getMessage());
+            throw new BatchListenerFailedException("Could not apply review events for bookId: " + bookId, e, firstIndex);
+        }
     }
 }
@@ -6,7 +6,10 @@ import com.pavila.dto.PaginatedBooksResponseDTO;
 import com.pavila.entity.Book;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Slice;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.List;
 
 public class BookMapper {
@@ -24,6 +27,7 @@ public class BookMapper {
                 .isbn(bookRequestDTO.getIsbn())
                 .averageRating(0.0)
                 .reviewCount(0)
+                .ratingSum(0L)
                 .build();
     }
 
@@ -59,6 +63,17 @@ public class BookMapper {
     }
 
     public static PaginatedBooksResponseDTO mapToPaginatedDTO(Page<Book> books) {
+        PaginatedBooksResponseDTO response = mapToPaginatedDTO((Slice<Book>) books);
+        response.setTotalElements(books.getTotalElements());
+        response.setTotalPages(books.getTotalPages());
+
+        return response;
+    }
+
+    /**
+     * Maps a page without totals; {@code totalElements} and {@code totalPages} are left null.
+     */
+    public static PaginatedBooksResponseDTO mapToPaginatedDTO(Slice<Book> books) {
         List<BookResponseDTO> bookDTOs = books.stream()
                 .map(BookMapper::mapToDTO)
                 .toList();
@@ -67,8 +82,6 @@ public class BookMapper {
         response.setContent(bookDTOs);
         response.setPage(books.getNumber());
         response.setSize(books.getSize());
-        response.setTotalElements(books.getTotalElements());
-        response.setTotalPages(books.getTotalPages());
         response.setHasNext(books.hasNext());
         response.setHasPrevious(books.hasPrevious());
         response.setFirst(books.isFirst());
@@ -77,5 +90,39 @@ public class BookMapper {
         return response;
     }
 
+    /**
+     * Maps a seek page; {@code books} holds up to {@code size + 1} rows ordered by id and the
+     * extra row only signals that another page exists. Only {@code after = 0} starts at the first
+     * book, any other cursor came from an earlier page.
+     */
+    public static PaginatedBooksResponseDTO mapToKeysetDTO(List<Book> books, int size, long after) {
+        boolean hasNext = books.size() > size;
+        List<BookResponseDTO> bookDTOs = (hasNext ? books.subList(0, size) : books).stream()
+                .map(BookMapper::mapToDTO)
+                .toList();
+
+        PaginatedBooksResponseDTO response = new PaginatedBooksResponseDTO();
+        response.setContent(bookDTOs);
+        response.setSize(size);
+        response.setHasNext(hasNext);
+        response.setHasPrevious(after > 0);
+        response.setFirst(after == 0);
+        response.setLast(!hasNext);
+        response.setNext(hasNext ? bookDTOs.get(bookDTOs.size() - 1).getId() : null);
+
+        return response;
+    }
+
+    /**
+     * Average rating rounded half-up to one decimal, 0.0 for a book without reviews.
+     */
+    public static double calculateAverage(long sum, int count) {
+        if (count == 0) {
+            return 0.0;
+        }
+        return BigDecimal.valueOf(sum)
+                .divide(BigDecimal.valueOf(count), 1, RoundingMode.HALF_UP)
+                .doubleValue();
+    }
 
 }
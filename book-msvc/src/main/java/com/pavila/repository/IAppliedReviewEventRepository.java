@@ -0,0 +1,24 @@
+package com.pavila.repository;
+
+import com.pavila.entity.AppliedReviewEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface IAppliedReviewEventRepository extends JpaRepository<AppliedReviewEvent, UUID> {
+
+    @Query("select e.eventId from AppliedReviewEvent e where e.eventId in :eventIds")
+    List<UUID> findEventIdsIn(@Param("eventIds") Collection<UUID> eventIds);
+
+    @Transactional
+    @Modifying
+    @Query("delete from AppliedReviewEvent e where e.appliedAt < :before")
+    int deleteAllByAppliedAtBefore(@Param("before") LocalDateTime before);
+}
@@ -1,20 +1,30 @@
 package com.pavila.service;
 
+import com.pavila.dto.BookBatchResponseDTO;
 import com.pavila.dto.BookDetailsDTO;
 import com.pavila.dto.BookRequestDTO;
 import com.pavila.dto.BookResponseDTO;
 import com.pavila.dto.PaginatedBooksResponseDTO;
+import com.pavila.events.ReviewEvent;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.io.InputStream;
+import java.util.List;
+
 public interface IBookService {
 
     void createBook(BookRequestDTO bookRequestDTO);
+    BookBatchResponseDTO createBooks(InputStream body);
     BookDetailsDTO findById(Long id);
     void updateBook(Long id, BookRequestDTO bookRequestDTO);
     void deleteById(Long id);
     void updateBookRatingAndCount(Long id);
-    PaginatedBooksResponseDTO findAllBook(Pageable pageable);
+    PaginatedBooksResponseDTO findAllBook(Pageable pageable, Long afterId, boolean withCount);
     boolean existsById(Long id);
+    List<Long> findBookIds(Long afterId, int size);
     void updateBookRating(Long bookId);
+    boolean applyReviewEvent(ReviewEvent event);
+    boolean applyReviewEvents(Long bookId, List<ReviewEvent> events);
+    void evictBookDetails(Long bookId);
 }
@@ -1,16 +1,21 @@
 package com.pavila.service.client;
 
-import com.pavila.dto.ReviewResponseDTO;
+import com.pavila.dto.PaginatedReviewsResponseDTO;
+import com.pavila.dto.ReviewSummaryDTO;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
-
-import java.util.List;
+import org.springframework.web.bind.annotation.RequestParam;
 
 @FeignClient(value = "reviews", path = "/api")
 public interface ReviewFeignClient {
 
     @GetMapping( value = "/reviews/{bookId}", consumes = "application/json")
-    ResponseEntity<List<ReviewResponseDTO>> findAllReviewsByBookId(@PathVariable Long bookId);
+    ResponseEntity<PaginatedReviewsResponseDTO> findReviewsByBookId(@PathVariable Long bookId,
+                                                                    @RequestParam(required = false) String cursor,
+                                                                    @RequestParam(name = "sz", required = false) Integer size);
+
+    @GetMapping( value = "/reviews/{bookId}/summary", consumes = "application/json")
+    ResponseEntity<ReviewSummaryDTO> getReviewSummaryByBookId(@PathVariable Long bookId);
 }
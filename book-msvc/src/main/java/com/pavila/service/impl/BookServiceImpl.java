@@ -1,27 +1,53 @@
 package com.pavila.service.impl;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pavila.commons.outbox.IOutboxService;
 import com.pavila.constants.BookConstants;
 import com.pavila.dto.*;
 import com.pavila.entity.Book;
+import com.pavila.events.BookEvent;
+import com.pavila.events.EventType;
+import com.pavila.events.ReviewEvent;
+import com.pavila.exception.InvalidPaginationException;
 import com.pavila.exception.ResourceNotFoundException;
 import com.pavila.mapper.BookMapper;
 import com.pavila.repository.IBookRepository;
 import com.pavila.service.IBookService;
 import com.pavila.service.client.ReviewFeignClient;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeanUtils;
-import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.http.ResponseEntity;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Timed("books.service")
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -29,7 +55,18 @@ public class BookServiceImpl implements IBookService {
 
     private final IBookRepository bookRepository;
     private final ReviewFeignClient reviewFeignClient;
-    private final StreamBridge streamBridge;
+    private final IOutboxService outboxService;
+    private final ReviewEventDeduplicator reviewEventDeduplicator;
+    private final Executor reviewsTaskExecutor;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${books.batch.chunk-size:500}")
+    private int batchChunkSize;
+
+    @Value("${books.reviews.timeout-ms:1500}")
+    private long reviewsTimeoutMs;
 
     @Transactional
     @Override
@@ -38,50 +75,174 @@ public class BookServiceImpl implements IBookService {
         Book book = BookMapper.mapToEntity(bookRequestDTO);
         book = bookRepository.save(book);
         log.info("Book saved successfully with ID: {}", book.getId());
+        sendCommunication(book.getId(), EventType.BOOK_CREATED);
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Reads books one by one from a JSON array or NDJSON body, validates each item and inserts the
+     * valid ones in chunks of {@code books.batch.chunk-size}, each chunk in its own transaction so
+     * Hibernate can batch the inserts and the persistence context stays small.
+     */
     @Override
-    public PaginatedBooksResponseDTO findAllBook(Pageable pageable) {
-        log.info("Fetching books with pagination: page={}, size={}", pageable.getPageNumber(), pageable.getPageSize());
+    public BookBatchResponseDTO createBooks(InputStream body) {
+        BookBatchResponseDTO response = new BookBatchResponseDTO();
+        List<Book> chunk = new ArrayList<>(batchChunkSize);
+        long index = 0;
+
+        try (MappingIterator<BookRequestDTO> items = objectMapper.readerFor(BookRequestDTO.class).readValues(body)) {
+            while (items.hasNextValue()) {
+                BookRequestDTO item = items.nextValue();
+                long position = index++;
+
+                if (item == null) {
+                    reject(response, position, Map.of("item", "Book must not be null"));
+                    continue;
+                }
+                Set<ConstraintViolation<BookRequestDTO>> violations = validator.validate(item);
+                if (!violations.isEmpty()) {
+                    Map<String, String> errors = new HashMap<>();
+                    violations.forEach(v -> errors.put(v.getPropertyPath().toString(), v.getMessage()));
+                    reject(response, position, errors);
+                    continue;
+                }
+
+                chunk.add(BookMapper.mapToEntity(item));
+                if (chunk.size() == batchChunkSize) {
+                    response.setCreated(response.getCreated() + saveChunk(chunk));
+                    chunk.clear();
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Stopped reading batch at item {}: {}", index, e.getMessage());
+            reject(response, index++, Map.of("item", "Malformed book data, items after this one were not read"));
+        }
 
-        Page<Book> books = bookRepository.findAll(pageable);
+        if (!chunk.isEmpty()) {
+            response.setCreated(response.getCreated() + saveChunk(chunk));
+        }
+        response.setReceived(index);
+        log.info("Batch import finished: received={}, created={}, rejected={}",
+                response.getReceived(), response.getCreated(), response.getRejected());
+        return response;
+    }
 
-        if (books.isEmpty()) {
+    private int saveChunk(List<Book> chunk) {
+        List<Book> saved = transactionTemplate.execute(status -> {
+            List<Book> books = bookRepository.saveAll(chunk);
+            books.forEach(book -> sendCommunication(book.getId(), EventType.BOOK_CREATED));
+            return books;
+        });
+        if (saved == null) {
+            return 0;
+        }
+        log.debug("Saved batch chunk of {} books", saved.size());
+        return saved.size();
+    }
+
+    private void reject(BookBatchResponseDTO response, long index, Map<String, String> errors) {
+        response.setRejected(response.getRejected() + 1);
+        if (response.getErrors().size() < BookConstants.MAX_BATCH_ERRORS) {
+            response.getErrors().add(new BookBatchErrorDTO(index, errors));
+        }
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public PaginatedBooksResponseDTO findAllBook(Pageable pageable, Long afterId, boolean withCount) {
+        log.info("Fetching books with pagination: page={}, size={}, after={}, count={}",
+                pageable.getPageNumber(), pageable.getPageSize(), afterId, withCount);
+
+        PaginatedBooksResponseDTO response;
+        if (afterId != null) {
+            // Seek pages always follow the id index; any other order would make the cursor meaningless
+            boolean seekOrder = pageable.getSort().stream()
+                    .allMatch(order -> order.getProperty().equals("id") && order.isAscending());
+            if (!seekOrder) {
+                throw new InvalidPaginationException("Sort '" + pageable.getSort() + "' is not supported with 'after', " +
+                        "seek pages are always ordered by ascending id");
+            }
+            List<Book> books = bookRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(pageable.getPageSize() + 1));
+            response = BookMapper.mapToKeysetDTO(books, pageable.getPageSize(), afterId);
+        } else if (withCount) {
+            Page<Book> books = bookRepository.findAll(pageable);
+            response = BookMapper.mapToPaginatedDTO(books);
+        } else {
+            Slice<Book> books = bookRepository.findAllBy(pageable);
+            response = BookMapper.mapToPaginatedDTO(books);
+        }
+
+        if (response.getContent().isEmpty()) {
             log.warn("No books found for the given pagination.");
             throw new ResourceNotFoundException("No books found.");
         }
 
-        PaginatedBooksResponseDTO response = BookMapper.mapToPaginatedDTO(books);
-        log.info("Found {} books", response.getTotalElements());
+        log.info("Found {} books", response.getContent().size());
 
         return response;
     }
 
 
-    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = BookConstants.BOOK_DETAILS_CACHE, key = "#id", unless = "!#result.reviewsAvailable")
     @Override
     public BookDetailsDTO findById(Long id) {
         log.info("Attempting to find book with ID: {}", id);
 
+        // Reviews are requested first so the remote call overlaps the lookup; no transaction
+        // is held here, so the JDBC connection goes back to the pool before waiting on review-msvc.
+        CompletableFuture<PaginatedReviewsResponseDTO> reviewsFuture = fetchFirstReviewsPage(id);
+
         Book book = bookRepository.findById(id)
                 .orElseThrow(() -> {
+                    reviewsFuture.cancel(true);
                     log.warn("Book not found while trying to retrieve ID: {}", id);
                     return new ResourceNotFoundException("Book not found with id: " + id);
                 });
 
         log.info("Book found: {}", book.getId());
 
-        BookResponseDTO bookDTO = BookMapper.mapToDTO(book);
-        ResponseEntity<List<ReviewResponseDTO>> reviewsDTO = reviewFeignClient.findAllReviewsByBookId(id);
-
         BookDetailsDTO bookDetailsDTO = new BookDetailsDTO();
-        bookDetailsDTO.setBook(bookDTO);
-        bookDetailsDTO.setReviews(reviewsDTO.getBody());
+        bookDetailsDTO.setBook(BookMapper.mapToDTO(book));
+
+        PaginatedReviewsResponseDTO reviewsPage = awaitReviews(id, reviewsFuture);
+        if (reviewsPage != null) {
+            bookDetailsDTO.setReviews(reviewsPage.getContent());
+            bookDetailsDTO.setNextReviewsCursor(reviewsPage.getNext());
+            bookDetailsDTO.setReviewsAvailable(true);
+        } else {
+            bookDetailsDTO.setReviews(Collections.emptyList());
+            bookDetailsDTO.setReviewsAvailable(false);
+        }
         return bookDetailsDTO;
+    }
+
+    private CompletableFuture<PaginatedReviewsResponseDTO> fetchFirstReviewsPage(Long id) {
+        try {
+            return CompletableFuture.supplyAsync(
+                    () -> reviewFeignClient.findReviewsByBookId(id, null, null).getBody(), reviewsTaskExecutor);
+        } catch (RejectedExecutionException e) {
+            log.warn("Reviews executor saturated, returning book {} without reviews", id);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
 
+    private PaginatedReviewsResponseDTO awaitReviews(Long id, CompletableFuture<PaginatedReviewsResponseDTO> reviewsFuture) {
+        try {
+            return reviewsFuture.get(reviewsTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Does not interrupt the Feign call; the read timeout of the reviews client, no longer than
+            // this wait, is what frees the executor thread
+            reviewsFuture.cancel(true);
+            log.warn("Reviews for book {} not received within {} ms, returning book without reviews", id, reviewsTimeoutMs);
+        } catch (ExecutionException e) {
+            log.warn("Could not fetch reviews for book {}: {}", id, e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            reviewsFuture.cancel(true);
+        }
+        return null;
     }
 
+    @CacheEvict(cacheNames = BookConstants.BOOK_DETAILS_CACHE, key = "#id")
     @Transactional
     @Override
     public void updateBook(Long id, BookRequestDTO bookRequestDTO) {
@@ -101,6 +262,7 @@ public class BookServiceImpl implements IBookService {
         log.info("Book with ID: {} updated successfully", id);
     }
 
+    @CacheEvict(cacheNames = BookConstants.BOOK_DETAILS_CACHE, key = "#id")
     @Transactional
     @Override
     public void deleteById(Long id) {
@@ -115,38 +277,31 @@ public class BookServiceImpl implements IBookService {
         bookRepository.delete(book);
 
         log.info("Book with ID: {} deleted successfully", id);
-        sendCommunication(id, BookConstants.BOOK_DELETED);
+        sendCommunication(id, EventType.BOOK_DELETED);
     }
 
-    private void sendCommunication(Long id, String eventType) {
+    private void sendCommunication(Long id, EventType eventType) {
         var event = new BookEvent(id, eventType);
-        log.info("Sending '{}' event for bookId: {}", eventType, id);
-        boolean result = streamBridge.send("sendBookEvent-out-0", event);
-        log.info("Event '{}' sent successfully? {}", eventType, result);
+        log.info("Queueing '{}' event for bookId: {}", eventType, id);
+        outboxService.enqueue("sendBookEvent-out-0", id, eventType, event);
     }
 
+    @CacheEvict(cacheNames = BookConstants.BOOK_DETAILS_CACHE, key = "#bookId")
     @Transactional
     @Override
     public void updateBookRatingAndCount(Long bookId) {
         log.info("Starting update of averageRating and reviewCount for bookId: {}", bookId);
-        ResponseEntity<List<ReviewResponseDTO>> response = reviewFeignClient.findAllReviewsByBookId(bookId);
-        List<ReviewResponseDTO> reviews = response.getBody();
-
-        int count = reviews != null ? reviews.size() : 0;
-
-        double average = (reviews != null && !reviews.isEmpty()) ?
-                BigDecimal.valueOf(
-                        reviews.stream()
-                                .mapToInt(ReviewResponseDTO::getRating)
-                                .average()
-                                .orElse(0.0)
-                ).setScale(1, RoundingMode.HALF_UP).doubleValue()
-                : 0.0;
+        ReviewSummaryDTO summary = fetchReviewSummary(bookId);
+
+        int count = Math.toIntExact(summary.getReviewCount());
+        long sum = summary.getRatingSum();
+        double average = BookMapper.calculateAverage(sum, count);
         log.info("Calculated averageRating: {} and reviewCount: {} for bookId: {}", average, count, bookId);
 
         Book book = bookRepository.findById(bookId)
                 .orElseThrow( () -> new ResourceNotFoundException("Book not found with id: " + bookId));
 
+        book.setRatingSum(sum);
         book.setAverageRating(average);
         book.setReviewCount(count);
         bookRepository.save(book);
@@ -160,32 +315,122 @@ public class BookServiceImpl implements IBookService {
         return bookRepository.existsById(id);
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public List<Long> findBookIds(Long afterId, int size) {
+        int pageSize = Math.min(size, BookConstants.MAX_IDS_PAGE_SIZE);
+        return bookRepository.findIdsAfter(afterId, Limit.of(pageSize));
+    }
+
+    @CacheEvict(cacheNames = BookConstants.BOOK_DETAILS_CACHE, key = "#bookId")
     @Transactional
     @Override
     public void updateBookRating(Long bookId) {
         log.info("Starting update of average rating for bookId: {}", bookId);
 
-        ResponseEntity<List<ReviewResponseDTO>> response = reviewFeignClient.findAllReviewsByBookId(bookId);
-        List<ReviewResponseDTO> reviews = response.getBody();
+        ReviewSummaryDTO summary = fetchReviewSummary(bookId);
 
-        double average = (reviews != null && !reviews.isEmpty()) ?
-                BigDecimal.valueOf(
-                        reviews.stream()
-                                .mapToInt(ReviewResponseDTO::getRating)
-                                .average()
-                                .orElse(0.0)
-                ).setScale(1, RoundingMode.HALF_UP).doubleValue()
-                : 0.0;
+        long sum = summary.getRatingSum();
+        double average = BookMapper.calculateAverage(sum, Math.toIntExact(summary.getReviewCount()));
 
         log.info("Calculated average rating: {} for bookId: {}", average, bookId);
 
         Book book = bookRepository.findById(bookId)
                 .orElseThrow(() -> new ResourceNotFoundException("Book not found with id: " + bookId));
 
+        book.setRatingSum(sum);
         book.setAverageRating(average);
         bookRepository.save(book);
 
         log.info("Book with id {} updated successfully with new average rating: {}", bookId, average);
     }
 
+    @CacheEvict(cacheNames = BookConstants.BOOK_DETAILS_CACHE, key = "#event.bookId()")
+    @Transactional
+    @Override
+    public boolean applyReviewEvent(ReviewEvent event) {
+        return applyReviewEvents(event.bookId(), List.of(event));
+    }
+
+    /**
+     * Applies the review events of one book in a single transaction, as one coalesced delta. Events already
+     * applied are skipped, so a redelivered event or batch does not count a rating twice; their ids are
+     * recorded in this same transaction.
+     *
+     * @return whether the totals were recomputed from review-msvc instead of moved by the deltas
+     */
+    @CacheEvict(cacheNames = BookConstants.BOOK_DETAILS_CACHE, key = "#bookId")
+    @Transactional
+    @Override
+    public boolean applyReviewEvents(Long bookId, List<ReviewEvent> events) {
+        List<ReviewEvent> pending = reviewEventDeduplicator.withoutApplied(events);
+        if (pending.isEmpty()) {
+            log.info("Skipping {} review events for bookId: {}, already applied", events.size(), bookId);
+            return false;
+        }
+
+        RatingDelta delta = RatingDelta.of(pending);
+        boolean recomputed;
+        if (delta.recompute()) {
+            log.warn("Review events for bookId: {} carry no rating delta, recomputing from reviews", bookId);
+            updateBookRatingAndCount(bookId);
+            recomputed = true;
+        } else {
+            recomputed = applyRatingDelta(bookId, delta);
+        }
+        reviewEventDeduplicator.markApplied(bookId, pending);
+        return recomputed;
+    }
+
+    private boolean applyRatingDelta(Long bookId, RatingDelta delta) {
+        Book book = bookRepository.findById(bookId)
+                .orElseThrow(() -> new ResourceNotFoundException("Book not found with id: " + bookId));
+
+        if (book.getRatingSum() == null || book.getReviewCount() == null) {
+            log.warn("Book with id {} has no running rating totals, recomputing from reviews", bookId);
+            updateBookRatingAndCount(bookId);
+            return true;
+        }
+
+        long sum = book.getRatingSum() + delta.ratingDelta();
+        int count = book.getReviewCount() + delta.countDelta();
+
+        if (sum < 0 || count < 0 || (count == 0 && sum != 0)) {
+            log.warn("Running rating totals for bookId: {} drifted (sum={}, count={}), recomputing from reviews",
+                    bookId, sum, count);
+            updateBookRatingAndCount(bookId);
+            return true;
+        }
+
+        double average = BookMapper.calculateAverage(sum, count);
+        book.setRatingSum(sum);
+        book.setReviewCount(count);
+        book.setAverageRating(average);
+        bookRepository.save(book);
+
+        log.info("Applied rating delta to book with id {}: averageRating: {} and reviewCount: {}",
+                bookId, average, count);
+        return false;
+    }
+
+    @CacheEvict(cacheNames = BookConstants.BOOK_DETAILS_CACHE, key = "#bookId")
+    @Override
+    public void evictBookDetails(Long bookId) {
+        log.info("Evicted cached details for bookId: {}", bookId);
+    }
+
+    private ReviewSummaryDTO fetchReviewSummary(Long bookId) {
+        ReviewSummaryDTO summary = reviewFeignClient.getReviewSummaryByBookId(bookId).getBody();
+        if (summary == null) {
+            return new ReviewSummaryDTO(bookId, 0L, 0L, 0.0);
+        }
+        if (summary.getReviewCount() == null) {
+            summary.setReviewCount(0L);
+        }
+        if (summary.getRatingSum() == null) {
+            summary.setRatingSum(0L);
+        }
+        return summary;
+    }
+
 }
@@ -0,0 +1,29 @@
+package com.pavila.service.impl;
+
+import com.pavila.events.ReviewEvent;
+
+import java.util.List;
+
+/**
+ * Net change of a book's running rating totals over one or more review events. {@code recompute} is set
+ * when any of them carries no delta, in which case the totals have to be read again from review-msvc.
+ */
+record RatingDelta(long ratingDelta, int countDelta, boolean recompute) {
+
+    static final RatingDelta NONE = new RatingDelta(0, 0, false);
+
+    static RatingDelta of(ReviewEvent event) {
+        return event.hasRatingDelta()
+                ? new RatingDelta(event.ratingDelta(), event.countDelta(), false)
+                : new RatingDelta(0, 0, true);
+    }
+
+    static RatingDelta of(List<ReviewEvent> events) {
+        return events.stream().map(RatingDelta::of).reduce(NONE, RatingDelta::merge);
+    }
+
+    RatingDelta merge(RatingDelta other) {
+        return new RatingDelta(ratingDelta + other.ratingDelta, countDelta + other.countDelta,
+                recompute || other.recompute);
+    }
+}
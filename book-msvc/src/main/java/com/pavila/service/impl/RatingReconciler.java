@@ -0,0 +1,60 @@
+package com.pavila.service.impl;
+
+import com.pavila.exception.ResourceNotFoundException;
+import com.pavila.service.IBookService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Recomputes the totals of a book a second time, {@code books.ratings.reconcile-delay-ms} after a recompute
+ * replaced its deltas. The summary a recompute reads already counts the reviews whose events are still on
+ * their way, and those events are then applied on top of it; the second recompute, once they have landed,
+ * removes that double count. Drift from events still in flight at the second recompute is accepted.
+ * Pending books are held in memory, so a restart drops them.
+ */
+@Slf4j
+@Component
+public class RatingReconciler {
+
+    private final IBookService iBookService;
+    private final long delayNanos;
+    private final Map<Long, Long> due = new ConcurrentHashMap<>();
+
+    public RatingReconciler(IBookService iBookService,
+                            @Value("${books.ratings.reconcile-delay-ms:30000}") long delayMs) {
+        this.iBookService = iBookService;
+        this.delayNanos = Duration.ofMillis(delayMs).toNanos();
+    }
+
+    /**
+     * Schedules a recompute of the book, replacing any earlier one still pending.
+     */
+    public void schedule(Long bookId) {
+        due.put(bookId, System.nanoTime() + delayNanos);
+    }
+
+    @Scheduled(fixedDelayString = "${books.ratings.reconcile-interval-ms:5000}")
+    public void reconcile() {
+        long now = System.nanoTime();
+        due.forEach((bookId, dueAt) -> {
+            if (now - dueAt < 0 || !due.remove(bookId, dueAt)) {
+                return;
+            }
+            try {
+                iBookService.updateBookRatingAndCount(bookId);
+                log.info("Reconciled rating totals of bookId: {}", bookId);
+            } catch (ResourceNotFoundException e) {
+                log.info("Book with id {} no longer exists, dropping its reconcile", bookId);
+            } catch (Exception e) {
+                log.warn("Could not reconcile rating totals of bookId: {}, retrying later: {}", bookId, e.getMessage());
+                due.putIfAbsent(bookId, now + delayNanos);
+            }
+        });
+    }
+}
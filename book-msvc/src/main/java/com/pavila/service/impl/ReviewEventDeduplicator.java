@@ -0,0 +1,80 @@
+package com.pavila.service.impl;
+
+import com.pavila.entity.AppliedReviewEvent;
+import com.pavila.events.ReviewEvent;
+import com.pavila.repository.IAppliedReviewEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Keeps the ids of the review events already applied to the running totals, so an event redelivered by
+ * Kafka, alone or as part of a batch, is not counted twice. Ids are recorded in the transaction that moves
+ * the totals and kept for {@code books.ratings.applied-events-retention-hours}, well beyond any redelivery.
+ * Events without an id, written before ids existed, cannot be recognised and are always applied.
+ */
+@Slf4j
+@Component
+public class ReviewEventDeduplicator {
+
+    private final IAppliedReviewEventRepository appliedReviewEventRepository;
+    private final Duration retention;
+
+    public ReviewEventDeduplicator(IAppliedReviewEventRepository appliedReviewEventRepository,
+                                   @Value("${books.ratings.applied-events-retention-hours:24}") long retentionHours) {
+        this.appliedReviewEventRepository = appliedReviewEventRepository;
+        this.retention = Duration.ofHours(retentionHours);
+    }
+
+    /**
+     * The given events minus those already applied and repeated ids, in their original order.
+     */
+    List<ReviewEvent> withoutApplied(List<ReviewEvent> events) {
+        List<UUID> eventIds = events.stream().map(ReviewEvent::eventId).filter(Objects::nonNull).toList();
+        if (eventIds.isEmpty()) {
+            return events;
+        }
+        Set<UUID> seen = new HashSet<>(appliedReviewEventRepository.findEventIdsIn(eventIds));
+        List<ReviewEvent> pending = new ArrayList<>(events.size());
+        for (ReviewEvent event : events) {
+            if (event.eventId() == null || seen.add(event.eventId())) {
+                pending.add(event);
+            }
+        }
+        return pending;
+    }
+
+    /**
+     * Records the events as applied; must run in the transaction that applies them.
+     */
+    void markApplied(Long bookId, List<ReviewEvent> events) {
+        LocalDateTime now = LocalDateTime.now();
+        List<AppliedReviewEvent> applied = events.stream()
+                .filter(event -> event.eventId() != null)
+                .map(event -> AppliedReviewEvent.builder()
+                        .eventId(event.eventId())
+                        .bookId(bookId)
+                        .appliedAt(now)
+                        .build())
+                .toList();
+        appliedReviewEventRepository.saveAll(applied);
+    }
+
+    @Scheduled(fixedDelayString = "${books.ratings.applied-events-purge-interval-ms:600000}")
+    public void purge() {
+        int purged = appliedReviewEventRepository.deleteAllByAppliedAtBefore(LocalDateTime.now().minus(retention));
+        if (purged > 0) {
+            log.info("Purged {} applied review event ids older than {}", purged, retention);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+create sequence book_seq start with 1 increment by 50;
+
+create table books (
+    id bigint not null,
+    title varchar(255),
+    author varchar(255),
+    publication_year varchar(255),
+    isbn varchar(255),
+    average_rating float(53),
+    review_count integer,
+    rating_sum bigint,
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    constraint pk_books primary key (id)
+);
+
+-- Lookups by ISBN
+create index idx_books_isbn on books (isbn);
+-- Listings ordered or filtered by rating
+create index idx_books_average_rating on books (average_rating);
@@ -0,0 +1,11 @@
+create sequence outbox_event_seq start with 1 increment by 50;
+
+create table outbox_events (
+    id bigint not null,
+    binding varchar(255),
+    book_id bigint,
+    event_type varchar(255),
+    encoded_payload varbinary(64) not null,
+    created_at timestamp(6),
+    constraint pk_outbox_events primary key (id)
+);
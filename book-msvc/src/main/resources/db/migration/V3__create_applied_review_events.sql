@@ -0,0 +1,9 @@
+create table applied_review_events (
+    event_id uuid not null,
+    book_id bigint,
+    applied_at timestamp(6),
+    constraint pk_applied_review_events primary key (event_id)
+);
+
+-- Purge of ids older than the retention
+create index idx_applied_review_events_applied_at on applied_review_events (applied_at);
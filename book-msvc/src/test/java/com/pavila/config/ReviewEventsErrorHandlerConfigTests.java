@@ -0,0 +1,83 @@
+package com.pavila.config;
+
+import com.pavila.exception.ResourceNotFoundException;
+import com.pavila.service.impl.RatingReconciler;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.listener.CommonErrorHandler;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.ListenerExecutionFailedException;
+import org.springframework.kafka.listener.MessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReviewEventsErrorHandlerConfigTests {
+
+	private static final TopicPartition PARTITION = new TopicPartition("review-events-output", 0);
+
+	private RatingReconciler ratingReconciler;
+	private CommonErrorHandler errorHandler;
+	private Consumer<byte[], byte[]> consumer;
+	private MessageListenerContainer container;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		ratingReconciler = mock(RatingReconciler.class);
+		errorHandler = new ReviewEventsErrorHandlerConfig().reviewEventsErrorHandler(ratingReconciler, 4, 1, 1);
+		consumer = mock(Consumer.class);
+		container = mock(MessageListenerContainer.class);
+		when(container.getContainerProperties()).thenReturn(new ContainerProperties(PARTITION.topic()));
+	}
+
+	@Test
+	void missingBookIsSkippedWithoutRetriesOrRecompute() {
+		handle(new ResourceNotFoundException("Book not found with id: 2"));
+
+		// The failed record is skipped at once: consumption resumes after it
+		verify(consumer).seek(PARTITION, 12L);
+		verify(consumer, never()).seek(PARTITION, 11L);
+		verify(ratingReconciler, never()).schedule(anyLong());
+	}
+
+	@Test
+	void otherFailuresAreRetriedFromTheFailedRecord() {
+		handle(new IllegalStateException("database unavailable"));
+
+		verify(consumer).seek(PARTITION, 11L);
+		verify(ratingReconciler, never()).schedule(anyLong());
+	}
+
+	/**
+	 * Fails the second record of a batch of three, for book 2, the way the batch consumer reports it.
+	 * The handler always rethrows after seeking, so the container polls the remaining records again.
+	 */
+	private void handle(RuntimeException cause) {
+		ConsumerRecords<byte[], byte[]> records = new ConsumerRecords<>(Map.of(PARTITION, List.of(
+				record(10L, 1L), record(11L, 2L), record(12L, 3L))));
+		BatchListenerFailedException failure = new BatchListenerFailedException("Could not apply review events", cause, 1);
+
+		assertThatThrownBy(() -> errorHandler.handleBatch(new ListenerExecutionFailedException("Listener failed", failure),
+				records, consumer, container, () -> { }))
+				.isInstanceOf(RuntimeException.class);
+	}
+
+	private static ConsumerRecord<byte[], byte[]> record(long offset, long bookId) {
+		return new ConsumerRecord<>(PARTITION.topic(), PARTITION.partition(), offset,
+				String.valueOf(bookId).getBytes(StandardCharsets.UTF_8), new byte[0]);
+	}
+}
@@ -0,0 +1,68 @@
+package com.pavila.mapper;
+
+import com.pavila.dto.BookResponseDTO;
+import com.pavila.dto.PaginatedBooksResponseDTO;
+import com.pavila.entity.Book;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BookMapperTests {
+
+	@Test
+	void firstSeekPageHasNoPrevious() {
+		PaginatedBooksResponseDTO page = BookMapper.mapToKeysetDTO(books(1, 2), 3, 0);
+
+		assertThat(page.isFirst()).isTrue();
+		assertThat(page.isHasPrevious()).isFalse();
+		assertThat(page.isHasNext()).isFalse();
+		assertThat(page.isLast()).isTrue();
+		assertThat(page.getNext()).isNull();
+	}
+
+	@Test
+	void laterSeekPageHasPrevious() {
+		PaginatedBooksResponseDTO page = BookMapper.mapToKeysetDTO(books(4, 5), 3, 3);
+
+		assertThat(page.isFirst()).isFalse();
+		assertThat(page.isHasPrevious()).isTrue();
+	}
+
+	@Test
+	void extraRowSignalsNextPageAndIsDropped() {
+		PaginatedBooksResponseDTO page = BookMapper.mapToKeysetDTO(books(1, 4), 3, 0);
+
+		assertThat(page.getContent()).extracting(BookResponseDTO::getId).containsExactly(1L, 2L, 3L);
+		assertThat(page.isHasNext()).isTrue();
+		assertThat(page.isLast()).isFalse();
+		assertThat(page.getNext()).isEqualTo(3L);
+	}
+
+	@Test
+	void exactlyOnePageOfRowsIsTheLastPage() {
+		PaginatedBooksResponseDTO page = BookMapper.mapToKeysetDTO(books(1, 3), 3, 0);
+
+		assertThat(page.getContent()).hasSize(3);
+		assertThat(page.isHasNext()).isFalse();
+		assertThat(page.isLast()).isTrue();
+		assertThat(page.getNext()).isNull();
+	}
+
+	@Test
+	void emptySeekPage() {
+		PaginatedBooksResponseDTO page = BookMapper.mapToKeysetDTO(List.of(), 3, 9);
+
+		assertThat(page.getContent()).isEmpty();
+		assertThat(page.isHasNext()).isFalse();
+		assertThat(page.getNext()).isNull();
+	}
+
+	private static List<Book> books(long fromId, long toId) {
+		return LongStream.rangeClosed(fromId, toId)
+				.mapToObj(id -> Book.builder().id(id).title("Book " + id).build())
+				.toList();
+	}
+}
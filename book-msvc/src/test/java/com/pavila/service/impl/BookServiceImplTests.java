@@ -0,0 +1,155 @@
+package com.pavila.service.impl;
+
+import com.pavila.commons.outbox.IOutboxService;
+import com.pavila.dto.ReviewSummaryDTO;
+import com.pavila.entity.Book;
+import com.pavila.events.EventType;
+import com.pavila.events.ReviewEvent;
+import com.pavila.exception.InvalidPaginationException;
+import com.pavila.repository.IAppliedReviewEventRepository;
+import com.pavila.repository.IBookRepository;
+import com.pavila.service.client.ReviewFeignClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookServiceImplTests {
+
+	private final IBookRepository bookRepository = mock(IBookRepository.class);
+	private final ReviewFeignClient reviewFeignClient = mock(ReviewFeignClient.class);
+	private final IAppliedReviewEventRepository appliedReviewEventRepository = mock(IAppliedReviewEventRepository.class);
+	private BookServiceImpl bookService;
+
+	@BeforeEach
+	void setUp() {
+		bookService = new BookServiceImpl(bookRepository, reviewFeignClient, mock(IOutboxService.class),
+				new ReviewEventDeduplicator(appliedReviewEventRepository, 24), Runnable::run, null, null, null);
+		when(appliedReviewEventRepository.findEventIdsIn(anyCollection())).thenReturn(List.of());
+	}
+
+	@Test
+	void appliesRatingDeltaToRunningTotals() {
+		Book book = book(8L, 2);
+
+		boolean recomputed = bookService.applyReviewEvent(created(5));
+
+		assertThat(recomputed).isFalse();
+		assertThat(book.getRatingSum()).isEqualTo(13L);
+		assertThat(book.getReviewCount()).isEqualTo(3);
+		assertThat(book.getAverageRating()).isEqualTo(4.3);
+		verify(appliedReviewEventRepository).saveAll(anyIterable());
+	}
+
+	@Test
+	void appliesEventsOfOneBookAsOneDelta() {
+		Book book = book(10L, 3);
+		ReviewEvent rated = new ReviewEvent(UUID.randomUUID(), 1L, EventType.RATING_UPDATE, 2, 4, 0);
+
+		bookService.applyReviewEvents(1L, List.of(created(5), rated, deleted(3)));
+
+		assertThat(book.getRatingSum()).isEqualTo(14L);
+		assertThat(book.getReviewCount()).isEqualTo(3);
+		verify(bookRepository).save(book);
+	}
+
+	@Test
+	void skipsEventsAlreadyApplied() {
+		Book book = book(8L, 2);
+		ReviewEvent event = created(5);
+		when(appliedReviewEventRepository.findEventIdsIn(anyCollection())).thenReturn(List.of(event.eventId()));
+
+		boolean recomputed = bookService.applyReviewEvents(1L, List.of(event));
+
+		assertThat(recomputed).isFalse();
+		assertThat(book.getRatingSum()).isEqualTo(8L);
+		verify(bookRepository, never()).findById(any());
+	}
+
+	@Test
+	void appliesARepeatedEventOnce() {
+		Book book = book(8L, 2);
+		ReviewEvent event = created(5);
+
+		bookService.applyReviewEvents(1L, List.of(event, event));
+
+		assertThat(book.getRatingSum()).isEqualTo(13L);
+		assertThat(book.getReviewCount()).isEqualTo(3);
+	}
+
+	@Test
+	void recomputesWhenTotalsWouldTurnNegative() {
+		Book book = book(3L, 1);
+		when(reviewFeignClient.getReviewSummaryByBookId(1L))
+				.thenReturn(ResponseEntity.ok(new ReviewSummaryDTO(1L, 2L, 9L, 4.5)));
+
+		boolean recomputed = bookService.applyReviewEvent(deleted(5));
+
+		assertThat(recomputed).isTrue();
+		assertThat(book.getRatingSum()).isEqualTo(9L);
+		assertThat(book.getReviewCount()).isEqualTo(2);
+		assertThat(book.getAverageRating()).isEqualTo(4.5);
+		verify(appliedReviewEventRepository).saveAll(anyIterable());
+	}
+
+	@Test
+	void recomputesEventsWithoutDelta() {
+		Book book = book(8L, 2);
+		when(reviewFeignClient.getReviewSummaryByBookId(1L))
+				.thenReturn(ResponseEntity.ok(new ReviewSummaryDTO(1L, 3L, 12L, 4.0)));
+
+		boolean recomputed = bookService.applyReviewEvent(
+				new ReviewEvent(null, 1L, EventType.REVIEW_CREATED, null, null, null));
+
+		assertThat(recomputed).isTrue();
+		assertThat(book.getRatingSum()).isEqualTo(12L);
+		assertThat(book.getReviewCount()).isEqualTo(3);
+	}
+
+	@Test
+	void rejectsSortOtherThanIdWhenSeeking() {
+		PageRequest byTitle = PageRequest.of(0, 10, Sort.by("title"));
+
+		assertThatThrownBy(() -> bookService.findAllBook(byTitle, 0L, true))
+				.isInstanceOf(InvalidPaginationException.class);
+		verify(bookRepository, never()).findByIdGreaterThanOrderByIdAsc(any(), any());
+	}
+
+	@Test
+	void acceptsAscendingIdSortWhenSeeking() {
+		when(bookRepository.findByIdGreaterThanOrderByIdAsc(any(), any()))
+				.thenReturn(List.of(Book.builder().id(1L).build()));
+
+		assertThat(bookService.findAllBook(PageRequest.of(0, 10, Sort.by("id")), 0L, true).getContent())
+				.hasSize(1);
+	}
+
+	private Book book(long ratingSum, int reviewCount) {
+		Book book = Book.builder().id(1L).ratingSum(ratingSum).reviewCount(reviewCount).build();
+		when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
+		return book;
+	}
+
+	private static ReviewEvent created(int rating) {
+		return new ReviewEvent(UUID.randomUUID(), 1L, EventType.REVIEW_CREATED, null, rating, 1);
+	}
+
+	private static ReviewEvent deleted(int rating) {
+		return new ReviewEvent(UUID.randomUUID(), 1L, EventType.REVIEW_DELETED, rating, null, -1);
+	}
+}
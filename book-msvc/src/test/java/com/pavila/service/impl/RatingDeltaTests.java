@@ -0,0 +1,36 @@
+package com.pavila.service.impl;
+
+import com.pavila.events.EventType;
+import com.pavila.events.ReviewEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RatingDeltaTests {
+
+	@Test
+	void mergesRatingAndCountDeltas() {
+		RatingDelta delta = RatingDelta.of(List.of(
+				new ReviewEvent(null, 1L, EventType.REVIEW_CREATED, null, 4, 1),
+				new ReviewEvent(null, 1L, EventType.RATING_UPDATE, 4, 2, 0),
+				new ReviewEvent(null, 1L, EventType.REVIEW_DELETED, 5, null, -1)));
+
+		assertThat(delta).isEqualTo(new RatingDelta(-3, 0, false));
+	}
+
+	@Test
+	void anEventWithoutDeltaForcesARecompute() {
+		RatingDelta delta = RatingDelta.of(new ReviewEvent(null, 1L, EventType.REVIEW_CREATED, null, 4, 1))
+				.merge(RatingDelta.of(new ReviewEvent(null, 1L, EventType.REVIEW_CREATED, null, null, null)));
+
+		assertThat(delta.recompute()).isTrue();
+		assertThat(delta.ratingDelta()).isEqualTo(4);
+	}
+
+	@Test
+	void noEventsIsNoChange() {
+		assertThat(RatingDelta.of(List.of())).isEqualTo(RatingDelta.NONE);
+	}
+}
@@ -0,0 +1,90 @@
+package com.pavila.commons.feign;
+
+import feign.RequestTemplate;
+import feign.micrometer.DefaultFeignObservationConvention;
+import feign.micrometer.FeignContext;
+import feign.micrometer.MicrometerObservationCapability;
+import io.micrometer.common.KeyValues;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import io.micrometer.observation.ObservationRegistry;
+import org.apache.hc.client5.http.impl.ChainElement;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.cloud.openfeign.clientconfig.HttpClient5FeignConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Metrics of the Feign clients and of their pooled Apache HttpClient 5 transport. Pool size and usage come
+ * from {@code httpcomponents.httpclient.pool.*}; call latency by client and method from
+ * {@code feign.client.requests}.
+ */
+@AutoConfiguration
+public class FeignClientAutoConfiguration {
+
+    private static final String ACQUIRE_START = FeignClientAutoConfiguration.class.getName() + ".acquireStart";
+
+    @Bean
+    public SmartInitializingSingleton feignPoolMetrics(HttpClientConnectionManager connectionManager,
+                                                       MeterRegistry meterRegistry) {
+        return () -> {
+            if (connectionManager instanceof PoolingHttpClientConnectionManager pool) {
+                new PoolingHttpClientConnectionManagerMetricsBinder(pool, "feign").bindTo(meterRegistry);
+            }
+        };
+    }
+
+    /**
+     * Replaces the feign-micrometer observations of every client: they are named {@code feign.client.requests},
+     * so their tags never clash with the {@code http.client.requests} timers of other HTTP clients, and carry
+     * the Feign client name and Java method besides the HTTP method, URL template and status.
+     */
+    @Bean
+    public MicrometerObservationCapability micrometerObservationCapability(ObservationRegistry observationRegistry) {
+        return new MicrometerObservationCapability(observationRegistry, new ClientMethodObservationConvention());
+    }
+
+    /**
+     * Times the step that leases a pooled connection, or opens one when the pool has no idle connection
+     * for the host, so waiting on an exhausted pool shows up as {@code feign.client.connection.acquire}.
+     */
+    @Bean
+    public HttpClient5FeignConfiguration.HttpClientBuilderCustomizer connectionAcquireTimer(MeterRegistry meterRegistry) {
+        Timer acquire = Timer.builder("feign.client.connection.acquire")
+                .description("Time to lease a pooled connection or open a new one for a Feign call")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        return builder -> builder
+                .addExecInterceptorBefore(ChainElement.CONNECT.name(), "acquire-start", (request, scope, chain) -> {
+                    scope.clientContext.setAttribute(ACQUIRE_START, System.nanoTime());
+                    return chain.proceed(request, scope);
+                })
+                .addExecInterceptorAfter(ChainElement.CONNECT.name(), "acquire-end", (request, scope, chain) -> {
+                    if (scope.clientContext.getAttribute(ACQUIRE_START) instanceof Long start) {
+                        acquire.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    }
+                    return chain.proceed(request, scope);
+                });
+    }
+
+    static class ClientMethodObservationConvention extends DefaultFeignObservationConvention {
+
+        @Override
+        public String getName() {
+            return "feign.client.requests";
+        }
+
+        @Override
+        public KeyValues getLowCardinalityKeyValues(FeignContext context) {
+            RequestTemplate template = context.getCarrier().requestTemplate();
+            return super.getLowCardinalityKeyValues(context)
+                    .and("client", template.feignTarget().name())
+                    .and("method", template.methodMetadata().method().getName());
+        }
+    }
+}
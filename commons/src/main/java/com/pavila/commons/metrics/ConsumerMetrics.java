@@ -0,0 +1,64 @@
+package com.pavila.commons.metrics;
+
+import com.pavila.events.EventType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters of one event consumer binding: {@code <prefix>.events.consumed} counts the events received by type,
+ * {@code <prefix>.events.processing} times the handling of each event by type and outcome, and
+ * {@code <prefix>.events.batch.processing} times whole batches, whose events are handled together.
+ */
+public class ConsumerMetrics {
+
+    private final Meter.MeterProvider<Counter> consumed;
+    private final Meter.MeterProvider<Timer> processing;
+    private final Meter.MeterProvider<Timer> batchProcessing;
+
+    public ConsumerMetrics(MeterRegistry meterRegistry, String prefix, String binding) {
+        this.consumed = Counter.builder(prefix + ".events.consumed")
+                .description("Events received, by event type")
+                .tag("binding", binding)
+                .withRegistry(meterRegistry);
+        this.processing = Timer.builder(prefix + ".events.processing")
+                .description("Time to handle one event, by event type and outcome")
+                .tag("binding", binding)
+                .withRegistry(meterRegistry);
+        this.batchProcessing = Timer.builder(prefix + ".events.batch.processing")
+                .description("Time to handle one batch of events, by outcome")
+                .tag("binding", binding)
+                .withRegistry(meterRegistry);
+    }
+
+    public void consumed(EventType eventType) {
+        consumed.withTag("event.type", String.valueOf(eventType)).increment();
+    }
+
+    /**
+     * Counts the event and times {@code handler}; a handler that throws is recorded as a failure.
+     */
+    public void handle(EventType eventType, Runnable handler) {
+        consumed(eventType);
+        record(processing, handler, "event.type", String.valueOf(eventType));
+    }
+
+    public void handleBatch(Runnable handler) {
+        record(batchProcessing, handler);
+    }
+
+    private static void record(Meter.MeterProvider<Timer> timer, Runnable handler, String... tags) {
+        long start = System.nanoTime();
+        String outcome = "failure";
+        try {
+            handler.run();
+            outcome = "success";
+        } finally {
+            timer.withTags(Tags.of(tags).and("outcome", outcome)).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.pavila.commons.outbox;
+
+import com.pavila.events.EventType;
+
+public interface IOutboxService {
+    void enqueue(String binding, Long bookId, EventType eventType, Object event);
+    int relay();
+}
@@ -0,0 +1,27 @@
+package com.pavila.commons.outbox;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Registers the outbox of the service. {@link OutboxEvent} and {@link IOutboxEventRepository} are picked up
+ * by the JPA scan of the service, which starts at {@code com.pavila}; the {@code outbox_events} table comes
+ * from the service migrations.
+ */
+@AutoConfiguration
+public class OutboxAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean(IOutboxService.class)
+    public OutboxServiceImpl outboxService(IOutboxEventRepository outboxEventRepository,
+                                           StreamBridge streamBridge,
+                                           MeterRegistry meterRegistry,
+                                           @Value("${spring.application.name}") String prefix,
+                                           @Value("${${spring.application.name}.outbox.batch-size:100}") int batchSize) {
+        return new OutboxServiceImpl(outboxEventRepository, streamBridge, meterRegistry, prefix, batchSize);
+    }
+}
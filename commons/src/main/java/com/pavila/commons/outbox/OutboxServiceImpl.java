@@ -0,0 +1,134 @@
+package com.pavila.commons.outbox;
+
+import com.pavila.events.EventCodec;
+import com.pavila.events.EventType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.data.domain.Limit;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Transactional outbox: events are stored in the same transaction as the change that produced them
+ * and a scheduled relay drains them in id order to their bindings, so a slow broker never stretches
+ * a DB transaction and a rollback never leaves a published event behind. Delivery is at least once:
+ * the producer binding is synchronous, so an event is deleted only after the broker acknowledged it.
+ * <p>
+ * Registered by {@link OutboxAutoConfiguration}; meters and settings are prefixed with the application
+ * name, e.g. {@code books.outbox.depth} and {@code books.outbox.batch-size}.
+ */
+@Slf4j
+public class OutboxServiceImpl implements IOutboxService {
+
+    private final IOutboxEventRepository outboxEventRepository;
+    private final StreamBridge streamBridge;
+    private final int batchSize;
+    private final Timer relayLatency;
+    private final Counter relayed;
+    private final Meter.MeterProvider<Counter> produced;
+
+    public OutboxServiceImpl(IOutboxEventRepository outboxEventRepository,
+                             StreamBridge streamBridge,
+                             MeterRegistry meterRegistry,
+                             String prefix,
+                             int batchSize) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.streamBridge = streamBridge;
+        this.batchSize = batchSize;
+        this.relayLatency = Timer.builder(prefix + ".outbox.relay.latency")
+                .description("Time from an event being stored in the outbox to being sent to the broker")
+                .register(meterRegistry);
+        this.relayed = Counter.builder(prefix + ".outbox.relayed")
+                .description("Events sent from the outbox to the broker")
+                .register(meterRegistry);
+        this.produced = Counter.builder(prefix + ".events.produced")
+                .description("Events sent to the broker, by event type, binding and whether the broker acknowledged them")
+                .withRegistry(meterRegistry);
+        Gauge.builder(prefix + ".outbox.depth", outboxEventRepository, IOutboxEventRepository::count)
+                .description("Events waiting in the outbox")
+                .register(meterRegistry);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Override
+    public void enqueue(String binding, Long bookId, EventType eventType, Object event) {
+        outboxEventRepository.save(OutboxEvent.builder()
+                .binding(binding)
+                .bookId(bookId)
+                .eventType(eventType.name())
+                .encodedPayload(EventCodec.encode(event))
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+
+    @Scheduled(fixedDelayString = "${${spring.application.name}.outbox.poll-interval-ms:200}")
+    @Override
+    public int relay() {
+        int total = 0;
+        while (true) {
+            List<OutboxEvent> batch = outboxEventRepository.findAllByOrderByIdAsc(Limit.of(batchSize));
+            if (batch.isEmpty()) {
+                return total;
+            }
+
+            List<Long> sent = new ArrayList<>(batch.size());
+            for (OutboxEvent event : batch) {
+                if (!send(event)) {
+                    break;
+                }
+                sent.add(event.getId());
+                relayLatency.record(Duration.between(event.getCreatedAt(), LocalDateTime.now()));
+            }
+
+            if (!sent.isEmpty()) {
+                outboxEventRepository.deleteAllByIdIn(sent);
+                relayed.increment(sent.size());
+                total += sent.size();
+                log.debug("Relayed {} outbox events", sent.size());
+            }
+            if (sent.size() < batch.size()) {
+                log.warn("Outbox relay stopped after {} of {} events, retrying on next poll", sent.size(), batch.size());
+                return total;
+            }
+        }
+    }
+
+    private boolean send(OutboxEvent event) {
+        // Keyed by bookId so all events of a book land on the same partition and stay ordered
+        Message<byte[]> message = MessageBuilder.withPayload(event.getEncodedPayload())
+                .setHeader(KafkaHeaders.KEY, String.valueOf(event.getBookId()).getBytes(StandardCharsets.UTF_8))
+                .build();
+        try {
+            // Passed explicitly, otherwise the binding's default content type is applied to the payload.
+            // The binding is sync, so this returns once the broker acknowledged the record and throws otherwise
+            boolean result = streamBridge.send(event.getBinding(), message, EventCodec.MIME_TYPE);
+            log.info("Event '{}' for bookId: {} sent successfully? {}", event.getEventType(), event.getBookId(), result);
+            countProduced(event, result);
+            return result;
+        } catch (Exception e) {
+            log.warn("Could not send '{}' event for bookId: {}: {}", event.getEventType(), event.getBookId(), e.getMessage());
+            countProduced(event, false);
+            return false;
+        }
+    }
+
+    private void countProduced(OutboxEvent event, boolean sent) {
+        produced.withTags("event.type", event.getEventType(), "binding", event.getBinding(),
+                "outcome", sent ? "success" : "failure").increment();
+    }
+}
@@ -0,0 +1,64 @@
+package com.pavila.commons.schema;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Fails startup when an index the hot queries rely on is missing, instead of letting those queries
+ * silently fall back to full scans. Runs once all singletons, including the Flyway migration, are ready.
+ * Each service declares one bean per table with the indexes, by name, and their columns in order.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class SchemaIndexVerifier implements SmartInitializingSingleton {
+
+    private final DataSource dataSource;
+    private final String table;
+    private final Map<String, List<String>> expectedIndexes;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        Map<String, List<String>> actual = readIndexes();
+        expectedIndexes.forEach((name, columns) -> {
+            List<String> found = actual.get(name);
+            if (!columns.equals(found)) {
+                throw new IllegalStateException("Expected index " + name + " on " + table + columns
+                        + " but found " + (found == null ? "none" : found));
+            }
+        });
+        log.info("Verified indexes {} on table {}", expectedIndexes.keySet(), table);
+    }
+
+    private Map<String, List<String>> readIndexes() {
+        Map<String, List<String>> indexes = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            String tableName = metaData.storesUpperCaseIdentifiers() ? table.toUpperCase(Locale.ROOT) : table;
+            try (ResultSet rs = metaData.getIndexInfo(connection.getCatalog(), null, tableName, false, false)) {
+                while (rs.next()) {
+                    String index = rs.getString("INDEX_NAME");
+                    String column = rs.getString("COLUMN_NAME");
+                    if (index != null && column != null) {
+                        indexes.computeIfAbsent(index, k -> new ArrayList<>())
+                                .add(column.toLowerCase(Locale.ROOT));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not read indexes of table " + table, e);
+        }
+        return indexes;
+    }
+}
@@ -0,0 +1,28 @@
+package com.pavila.commons.threads;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.cloud.stream.config.ListenerContainerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.kafka.listener.AbstractMessageListenerContainer;
+
+/**
+ * Active with {@code spring.threads.virtual.enabled=true} on Java 21 or later. Spring Boot then runs the
+ * Tomcat request threads and the scheduler on virtual threads; this adds the Kafka consumers of the
+ * stream bindings, whose listener containers are created by the binder rather than by Spring Boot.
+ */
+@AutoConfiguration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadAutoConfiguration {
+
+    @Bean
+    public ListenerContainerCustomizer<AbstractMessageListenerContainer<?, ?>> virtualThreadListenerContainerCustomizer() {
+        return (container, destination, group) -> {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(destination + "-consumer-");
+            executor.setVirtualThreads(true);
+            container.getContainerProperties().setListenerTaskExecutor(executor);
+        };
+    }
+}
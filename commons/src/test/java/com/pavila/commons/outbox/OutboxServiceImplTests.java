@@ -0,0 +1,189 @@
+package com.pavila.commons.outbox;
+
+import com.pavila.events.EventCodec;
+import com.pavila.events.EventType;
+import com.pavila.events.ReviewEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Limit;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.MimeType;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OutboxServiceImplTests {
+
+	private static final String BINDING = "sendReviewEvent-out-0";
+
+	private IOutboxEventRepository repository;
+	private StreamBridge streamBridge;
+	private OutboxServiceImpl outboxService;
+
+	@BeforeEach
+	void setUp() {
+		repository = mock(IOutboxEventRepository.class);
+		streamBridge = mock(StreamBridge.class);
+		outboxService = new OutboxServiceImpl(repository, streamBridge, new SimpleMeterRegistry(), "reviews", 3);
+	}
+
+	@Test
+	void sendsEventsKeyedByBookIdWithTheCodecContentType() {
+		OutboxEvent event = event(1L, 42L);
+		when(repository.findAllByOrderByIdAsc(any(Limit.class))).thenReturn(List.of(event), List.of());
+		when(streamBridge.send(anyString(), any(Message.class), any(MimeType.class))).thenReturn(true);
+
+		assertThat(outboxService.relay()).isEqualTo(1);
+
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<Message<byte[]>> message = ArgumentCaptor.forClass(Message.class);
+		verify(streamBridge).send(eq(BINDING), message.capture(), eq(EventCodec.MIME_TYPE));
+		assertThat(message.getValue().getPayload()).isEqualTo(event.getEncodedPayload());
+		assertThat(new String((byte[]) message.getValue().getHeaders().get(KafkaHeaders.KEY), StandardCharsets.UTF_8))
+				.isEqualTo("42");
+		verify(repository).deleteAllByIdIn(List.of(1L));
+	}
+
+	@Test
+	void drainsFullBatchesUntilTheOutboxIsEmpty() {
+		when(repository.findAllByOrderByIdAsc(Limit.of(3))).thenReturn(
+				List.of(event(1L, 7L), event(2L, 7L), event(3L, 8L)),
+				List.of(event(4L, 9L)),
+				List.of());
+		when(streamBridge.send(anyString(), any(Message.class), any(MimeType.class))).thenReturn(true);
+
+		assertThat(outboxService.relay()).isEqualTo(4);
+
+		verify(repository).deleteAllByIdIn(List.of(1L, 2L, 3L));
+		verify(repository).deleteAllByIdIn(List.of(4L));
+	}
+
+	@Test
+	void stopsAtTheFirstEventTheBrokerDidNotAcknowledge() {
+		when(repository.findAllByOrderByIdAsc(any(Limit.class)))
+				.thenReturn(List.of(event(1L, 7L), event(2L, 8L), event(3L, 9L)));
+		when(streamBridge.send(anyString(), any(Message.class), any(MimeType.class))).thenReturn(true, false, true);
+
+		assertThat(outboxService.relay()).isEqualTo(1);
+
+		verify(repository).deleteAllByIdIn(List.of(1L));
+		verify(streamBridge, times(2)).send(anyString(), any(Message.class), any(MimeType.class));
+	}
+
+	@Test
+	void keepsEverythingWhenTheFirstSendThrows() {
+		when(repository.findAllByOrderByIdAsc(any(Limit.class))).thenReturn(List.of(event(1L, 7L), event(2L, 8L)));
+		when(streamBridge.send(anyString(), any(Message.class), any(MimeType.class))).thenThrow(new IllegalStateException("broker down"));
+
+		assertThat(outboxService.relay()).isZero();
+
+		verify(repository, never()).deleteAllByIdIn(any());
+	}
+
+	@Test
+	void enqueueStoresTheEncodedEventInsideTheCallersTransaction() {
+		try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+			context.registerBean(IOutboxEventRepository.class, () -> repository);
+			context.registerBean(StreamBridge.class, () -> streamBridge);
+			context.register(TransactionalOutboxConfig.class);
+			context.refresh();
+			IOutboxService proxied = context.getBean(IOutboxService.class);
+			ReviewEvent event = new ReviewEvent(UUID.randomUUID(), 5L, EventType.REVIEW_CREATED, null, 4, 1);
+
+			assertThatThrownBy(() -> proxied.enqueue(BINDING, 5L, EventType.REVIEW_CREATED, event))
+					.isInstanceOf(IllegalTransactionStateException.class);
+			verify(repository, never()).save(any());
+
+			new TransactionTemplate(context.getBean(PlatformTransactionManager.class)).executeWithoutResult(status ->
+					proxied.enqueue(BINDING, 5L, EventType.REVIEW_CREATED, event));
+
+			ArgumentCaptor<OutboxEvent> saved = ArgumentCaptor.forClass(OutboxEvent.class);
+			verify(repository).save(saved.capture());
+			assertThat(saved.getValue().getBinding()).isEqualTo(BINDING);
+			assertThat(saved.getValue().getBookId()).isEqualTo(5L);
+			assertThat(saved.getValue().getEventType()).isEqualTo("REVIEW_CREATED");
+			assertThat(EventCodec.decode(saved.getValue().getEncodedPayload(), ReviewEvent.class)).isEqualTo(event);
+		}
+	}
+
+	private static OutboxEvent event(Long id, Long bookId) {
+		ReviewEvent event = new ReviewEvent(UUID.randomUUID(), bookId, EventType.REVIEW_CREATED, null, 5, 1);
+		return OutboxEvent.builder()
+				.id(id)
+				.binding(BINDING)
+				.bookId(bookId)
+				.eventType(event.eventType().name())
+				.encodedPayload(EventCodec.encode(event))
+				.createdAt(LocalDateTime.now())
+				.build();
+	}
+
+	/**
+	 * Outbox behind a transactional proxy, with a transaction manager that only tracks whether a transaction is open.
+	 */
+	@Configuration
+	@EnableTransactionManagement
+	static class TransactionalOutboxConfig {
+
+		@Bean
+		PlatformTransactionManager transactionManager() {
+			return new AbstractPlatformTransactionManager() {
+
+				@Override
+				protected Object doGetTransaction() {
+					return new Object();
+				}
+
+				@Override
+				protected boolean isExistingTransaction(Object transaction) {
+					return TransactionSynchronizationManager.isActualTransactionActive();
+				}
+
+				@Override
+				protected void doBegin(Object transaction, TransactionDefinition definition) {
+				}
+
+				@Override
+				protected void doCommit(DefaultTransactionStatus status) {
+				}
+
+				@Override
+				protected void doRollback(DefaultTransactionStatus status) {
+				}
+			};
+		}
+
+		@Bean
+		IOutboxService outboxService(IOutboxEventRepository repository, StreamBridge streamBridge) {
+			return new OutboxServiceImpl(repository, streamBridge, new SimpleMeterRegistry(), "reviews", 3);
+		}
+	}
+}
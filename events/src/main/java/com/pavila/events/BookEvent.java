@@ -0,0 +1,4 @@
+package com.pavila.events;
+
+public record BookEvent(Long bookId, EventType eventType) {
+}
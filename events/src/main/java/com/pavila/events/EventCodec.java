@@ -0,0 +1,190 @@
+package com.pavila.events;
+
+import org.springframework.util.MimeType;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Compact binary encoding of {@link BookEvent} and {@link ReviewEvent}.
+ * <pre>
+ * version   1 byte
+ * type      1 byte   {@link EventType#code()}
+ * bookId    varint   zig-zag encoded
+ * -- review events only --
+ * presence  1 byte   bit 0 oldRating, bit 1 newRating, bit 2 countDelta, bit 3 eventId
+ * fields    varint   zig-zag encoded, only the present ones, in that order
+ * eventId   16 bytes big-endian, when present
+ * </pre>
+ * A book event takes 3 bytes for ids below 64 and a review event at most 44 bytes, against 40 to 140 bytes
+ * of JSON. Version 2 added the eventId; version 1 payloads, which never set its bit, still decode. Decoding
+ * rejects payloads written with an unknown schema version.
+ */
+public final class EventCodec {
+
+    public static final MimeType MIME_TYPE = new MimeType("application", "x-pavila-event");
+    public static final byte VERSION = 2;
+
+    private static final int MAX_SIZE = 2 + 10 + 1 + 3 * 5 + 16;
+    private static final int OLD_RATING = 1;
+    private static final int NEW_RATING = 1 << 1;
+    private static final int COUNT_DELTA = 1 << 2;
+    private static final int EVENT_ID = 1 << 3;
+
+    private EventCodec() {
+    }
+
+    public static boolean supports(Class<?> type) {
+        return type == BookEvent.class || type == ReviewEvent.class;
+    }
+
+    public static byte[] encode(Object event) {
+        if (event instanceof BookEvent bookEvent) {
+            return encode(bookEvent);
+        }
+        if (event instanceof ReviewEvent reviewEvent) {
+            return encode(reviewEvent);
+        }
+        throw new IllegalArgumentException("Unsupported event: " + (event == null ? null : event.getClass().getName()));
+    }
+
+    public static byte[] encode(BookEvent event) {
+        Writer writer = header(event.eventType(), BookEvent.class, event.bookId());
+        return writer.toByteArray();
+    }
+
+    public static byte[] encode(ReviewEvent event) {
+        Writer writer = header(event.eventType(), ReviewEvent.class, event.bookId());
+        int presence = (event.oldRating() != null ? OLD_RATING : 0)
+                | (event.newRating() != null ? NEW_RATING : 0)
+                | (event.countDelta() != null ? COUNT_DELTA : 0)
+                | (event.eventId() != null ? EVENT_ID : 0);
+        writer.writeByte(presence);
+        if (event.oldRating() != null) {
+            writer.writeVarLong(event.oldRating());
+        }
+        if (event.newRating() != null) {
+            writer.writeVarLong(event.newRating());
+        }
+        if (event.countDelta() != null) {
+            writer.writeVarLong(event.countDelta());
+        }
+        if (event.eventId() != null) {
+            writer.writeLong(event.eventId().getMostSignificantBits());
+            writer.writeLong(event.eventId().getLeastSignificantBits());
+        }
+        return writer.toByteArray();
+    }
+
+    public static Object decode(byte[] payload) {
+        Reader reader = new Reader(payload);
+        int version = reader.readByte();
+        if (version < 1 || version > VERSION) {
+            throw new IllegalArgumentException("Unsupported event schema version: " + version);
+        }
+        EventType type = EventType.fromCode(reader.readByte());
+        Long bookId = reader.readVarLong();
+        if (type.payloadType() == BookEvent.class) {
+            return new BookEvent(bookId, type);
+        }
+        int presence = reader.readByte();
+        Integer oldRating = (presence & OLD_RATING) != 0 ? reader.readVarInt() : null;
+        Integer newRating = (presence & NEW_RATING) != 0 ? reader.readVarInt() : null;
+        Integer countDelta = (presence & COUNT_DELTA) != 0 ? reader.readVarInt() : null;
+        UUID eventId = (presence & EVENT_ID) != 0 ? new UUID(reader.readLong(), reader.readLong()) : null;
+        return new ReviewEvent(eventId, bookId, type, oldRating, newRating, countDelta);
+    }
+
+    public static <T> T decode(byte[] payload, Class<T> targetType) {
+        Object event = decode(payload);
+        if (!targetType.isInstance(event)) {
+            throw new IllegalArgumentException("Payload holds a " + event.getClass().getSimpleName()
+                    + ", not a " + targetType.getSimpleName());
+        }
+        return targetType.cast(event);
+    }
+
+    private static Writer header(EventType type, Class<?> eventClass, Long bookId) {
+        if (type == null || type.payloadType() != eventClass) {
+            throw new IllegalArgumentException("Event type " + type + " is not a " + eventClass.getSimpleName());
+        }
+        if (bookId == null) {
+            throw new IllegalArgumentException("Event " + type + " has no bookId");
+        }
+        Writer writer = new Writer();
+        writer.writeByte(VERSION);
+        writer.writeByte(type.code());
+        writer.writeVarLong(bookId);
+        return writer;
+    }
+
+    private static final class Writer {
+
+        private final byte[] buffer = new byte[MAX_SIZE];
+        private int position;
+
+        void writeByte(int value) {
+            buffer[position++] = (byte) value;
+        }
+
+        void writeVarLong(long value) {
+            long zigZag = (value << 1) ^ (value >> 63);
+            while ((zigZag & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((zigZag & 0x7F) | 0x80);
+                zigZag >>>= 7;
+            }
+            buffer[position++] = (byte) zigZag;
+        }
+
+        void writeLong(long value) {
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer[position++] = (byte) (value >>> shift);
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+    }
+
+    private static final class Reader {
+
+        private final byte[] buffer;
+        private int position;
+
+        Reader(byte[] buffer) {
+            this.buffer = buffer;
+        }
+
+        int readByte() {
+            if (position >= buffer.length) {
+                throw new IllegalArgumentException("Truncated event payload");
+            }
+            return buffer[position++] & 0xFF;
+        }
+
+        long readVarLong() {
+            long zigZag = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                zigZag |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return (zigZag >>> 1) ^ -(zigZag & 1);
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint in event payload");
+        }
+
+        long readLong() {
+            long value = 0;
+            for (int i = 0; i < Long.BYTES; i++) {
+                value = (value << 8) | readByte();
+            }
+            return value;
+        }
+
+        int readVarInt() {
+            return Math.toIntExact(readVarLong());
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.pavila.events;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Registers {@link EventMessageConverter} in every service that has this module on its classpath;
+ * Spring Cloud Stream adds any {@code MessageConverter} bean to the converters of its bindings.
+ */
+@AutoConfiguration
+public class EventCodecAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public EventMessageConverter eventMessageConverter() {
+        return new EventMessageConverter();
+    }
+}
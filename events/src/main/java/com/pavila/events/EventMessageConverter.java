@@ -0,0 +1,42 @@
+package com.pavila.events;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.AbstractMessageConverter;
+
+/**
+ * Spring messaging converter for {@link EventCodec#MIME_TYPE}. Spring Cloud Stream selects it by the
+ * {@code contentType} of the message or binding, so JSON messages keep going through the JSON converter.
+ */
+public class EventMessageConverter extends AbstractMessageConverter {
+
+    public EventMessageConverter() {
+        super(EventCodec.MIME_TYPE);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return EventCodec.supports(clazz);
+    }
+
+    @Override
+    protected Object convertFromInternal(Message<?> message, Class<?> targetClass, Object conversionHint) {
+        if (!(message.getPayload() instanceof byte[] payload)) {
+            return null;
+        }
+        return EventCodec.decode(payload, targetClass);
+    }
+
+    /**
+     * Also accepts payloads already encoded, such as the ones the outbox stores.
+     */
+    @Override
+    protected boolean canConvertTo(Object payload, MessageHeaders headers) {
+        return (payload instanceof byte[] || supports(payload.getClass())) && supportsMimeType(headers);
+    }
+
+    @Override
+    protected Object convertToInternal(Object payload, MessageHeaders headers, Object conversionHint) {
+        return payload instanceof byte[] ? payload : EventCodec.encode(payload);
+    }
+}
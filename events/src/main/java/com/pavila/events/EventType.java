@@ -0,0 +1,47 @@
+package com.pavila.events;
+
+/**
+ * Types of the events exchanged between the services. The {@code code} is what travels on the wire,
+ * so existing codes must never be reused or renumbered; new types get the next free code.
+ */
+public enum EventType {
+
+    BOOK_CREATED(1, BookEvent.class),
+    BOOK_DELETED(2, BookEvent.class),
+    REVIEW_CREATED(10, ReviewEvent.class),
+    REVIEW_DELETED(11, ReviewEvent.class),
+    RATING_UPDATE(12, ReviewEvent.class),
+    COMMENT_UPDATE(13, ReviewEvent.class);
+
+    private static final EventType[] BY_CODE = new EventType[64];
+
+    static {
+        for (EventType type : values()) {
+            BY_CODE[type.code] = type;
+        }
+    }
+
+    private final int code;
+    private final Class<?> payloadType;
+
+    EventType(int code, Class<?> payloadType) {
+        this.code = code;
+        this.payloadType = payloadType;
+    }
+
+    public int code() {
+        return code;
+    }
+
+    public Class<?> payloadType() {
+        return payloadType;
+    }
+
+    public static EventType fromCode(int code) {
+        EventType type = code >= 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+        if (type == null) {
+            throw new IllegalArgumentException("Unknown event type code: " + code);
+        }
+        return type;
+    }
+}
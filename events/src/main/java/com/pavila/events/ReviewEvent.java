@@ -0,0 +1,21 @@
+package com.pavila.events;
+
+import java.util.UUID;
+
+/**
+ * Review change published by review-msvc. {@code oldRating}/{@code newRating} and {@code countDelta}
+ * let the book apply the change in O(1); events without them trigger a full recompute. {@code eventId}
+ * identifies the change, so a consumer can skip a redelivered event; it is null in events written
+ * before ids existed.
+ */
+public record ReviewEvent(UUID eventId, Long bookId, EventType eventType, Integer oldRating, Integer newRating,
+                          Integer countDelta) {
+
+    public boolean hasRatingDelta() {
+        return countDelta != null && (oldRating != null || newRating != null);
+    }
+
+    public long ratingDelta() {
+        return (newRating != null ? newRating : 0) - (oldRating != null ? oldRating : 0);
+    }
+}
@@ -0,0 +1,57 @@
+package com.pavila.events;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EventCodecTests {
+
+	@Test
+	void roundTripsEvents() {
+		var bookEvent = new BookEvent(Long.MAX_VALUE, EventType.BOOK_DELETED);
+		var reviewEvent = new ReviewEvent(UUID.randomUUID(), 42L, EventType.RATING_UPDATE, 5, null, -1);
+		var legacyReviewEvent = new ReviewEvent(null, 42L, EventType.REVIEW_CREATED, null, 4, 1);
+
+		assertThat(EventCodec.decode(EventCodec.encode(bookEvent))).isEqualTo(bookEvent);
+		assertThat(EventCodec.decode(EventCodec.encode(reviewEvent))).isEqualTo(reviewEvent);
+		assertThat(EventCodec.decode(EventCodec.encode(legacyReviewEvent))).isEqualTo(legacyReviewEvent);
+		assertThat(EventCodec.encode(new BookEvent(7L, EventType.BOOK_CREATED))).hasSize(3);
+	}
+
+	@Test
+	void rejectsUnknownSchemaVersion() {
+		byte[] payload = EventCodec.encode(new BookEvent(1L, EventType.BOOK_CREATED));
+		payload[0] = EventCodec.VERSION + 1;
+
+		assertThatThrownBy(() -> EventCodec.decode(payload))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("version");
+	}
+
+	@Test
+	void decodesVersionOnePayloads() {
+		var event = new ReviewEvent(null, 7L, EventType.REVIEW_DELETED, 3, null, -1);
+		byte[] payload = EventCodec.encode(event);
+		payload[0] = 1;
+
+		assertThat(EventCodec.decode(payload)).isEqualTo(event);
+	}
+
+	@Test
+	void converterPassesEncodedPayloadsThrough() {
+		var converter = new EventMessageConverter();
+		byte[] payload = EventCodec.encode(new BookEvent(3L, EventType.BOOK_CREATED));
+		var headers = new MessageHeaders(Map.of(MessageHeaders.CONTENT_TYPE, EventCodec.MIME_TYPE));
+
+		assertThat(converter.toMessage(payload, headers).getPayload()).isSameAs(payload);
+		assertThat(converter.fromMessage(MessageBuilder.createMessage(payload, headers), BookEvent.class))
+				.isEqualTo(new BookEvent(3L, EventType.BOOK_CREATED));
+	}
+
+}
@@ -1,12 +1,23 @@
 package com.pavila;
 
+import com.pavila.filters.LocalRateLimiter;
+import com.pavila.filters.PrincipalOrIpKeyResolver;
+import com.pavila.filters.ResponseCacheFilter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cloud.gateway.filter.factory.RetryGatewayFilterFactory;
 import org.springframework.cloud.gateway.route.RouteLocator;
 import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
 import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 
-import java.time.LocalDateTime;
+import java.time.Duration;
+import java.util.function.Consumer;
+
+import static org.springframework.cloud.gateway.support.RouteMetadataUtils.CONNECT_TIMEOUT_ATTR;
+import static org.springframework.cloud.gateway.support.RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR;
 
 @SpringBootApplication
 public class GatewayServerApplication {
@@ -16,20 +27,60 @@ public class GatewayServerApplication {
 	}
 
     @Bean
-    public RouteLocator libraryRouteConfig(RouteLocatorBuilder routeLocatorBuilder) {
+    public RouteLocator libraryRouteConfig(RouteLocatorBuilder routeLocatorBuilder,
+                                           ResponseCacheFilter responseCacheFilter,
+                                           LocalRateLimiter localRateLimiter,
+                                           PrincipalOrIpKeyResolver keyResolver,
+                                           @Value("${gateway.routes.connect-timeout-ms:1000}") int connectTimeoutMs,
+                                           @Value("${gateway.routes.books.response-timeout-ms:2000}") int booksTimeoutMs,
+                                           @Value("${gateway.routes.reviews.response-timeout-ms:2000}") int reviewsTimeoutMs,
+                                           @Value("${gateway.routes.books-batch.response-timeout-ms:60000}") int booksBatchTimeoutMs,
+                                           @Value("${gateway.routes.get-retries:2}") int getRetries) {
         return routeLocatorBuilder.routes()
-                .route(p -> p
+                // Batch imports stream large bodies: longer timeout, never retried nor cached
+                .route("books-batch", p -> p
+                        .order(-1)
+                        .path("/library/books/api/books/batch")
+                        .filters(f -> f.requestRateLimiter(c -> c.setRateLimiter(localRateLimiter).setKeyResolver(keyResolver))
+                                .rewritePath("/library/books/(?<segment>.*)", "/${segment}"))
+                        .metadata(RESPONSE_TIMEOUT_ATTR, booksBatchTimeoutMs)
+                        .metadata(CONNECT_TIMEOUT_ATTR, connectTimeoutMs)
+                        .uri("lb://BOOKS"))
+
+                .route("books", p -> p
                         .path("/library/books/**")
-                        .filters(f -> f.rewritePath("/library/books/(?<segment>.*)", "/${segment}")
-                                .addResponseHeader("X-Response-Time", LocalDateTime.now().toString()))
+                        .filters(f -> f.filter(responseCacheFilter)
+                                .requestRateLimiter(c -> c.setRateLimiter(localRateLimiter).setKeyResolver(keyResolver))
+                                .circuitBreaker(c -> c.setName("booksCircuitBreaker")
+                                        .setFallbackUri("forward:/fallback/books"))
+                                .retry(getOnlyRetry(getRetries))
+                                .rewritePath("/library/books/(?<segment>.*)", "/${segment}"))
+                        .metadata(RESPONSE_TIMEOUT_ATTR, booksTimeoutMs)
+                        .metadata(CONNECT_TIMEOUT_ATTR, connectTimeoutMs)
                         .uri("lb://BOOKS"))
 
-                .route(p -> p
+                .route("reviews", p -> p
                         .path("/library/reviews/**")
-                        .filters(f -> f.rewritePath("/library/reviews/(?<segment>.*)", "/${segment}")
-                                .addResponseHeader("X-Response-Time", LocalDateTime.now().toString()))
+                        .filters(f -> f.requestRateLimiter(c -> c.setRateLimiter(localRateLimiter).setKeyResolver(keyResolver))
+                                .circuitBreaker(c -> c.setName("reviewsCircuitBreaker")
+                                        .setFallbackUri("forward:/fallback/reviews"))
+                                .retry(getOnlyRetry(getRetries))
+                                .rewritePath("/library/reviews/(?<segment>.*)", "/${segment}"))
+                        .metadata(RESPONSE_TIMEOUT_ATTR, reviewsTimeoutMs)
+                        .metadata(CONNECT_TIMEOUT_ATTR, connectTimeoutMs)
                         .uri("lb://REVIEWS")).build();
 
 
     }
+
+    /**
+     * Retries only idempotent GETs, on gateway-level 5xx and connection errors, with jittered backoff.
+     */
+    private static Consumer<RetryGatewayFilterFactory.RetryConfig> getOnlyRetry(int retries) {
+        return config -> config.setRetries(retries)
+                .setMethods(HttpMethod.GET)
+                .setSeries()
+                .setStatuses(HttpStatus.BAD_GATEWAY, HttpStatus.SERVICE_UNAVAILABLE, HttpStatus.GATEWAY_TIMEOUT)
+                .setBackoff(Duration.ofMillis(50), Duration.ofMillis(500), 2, true);
+    }
 }
@@ -0,0 +1,126 @@
+package com.pavila.config;
+
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jwt.SignedJWT;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Local copy of the Keycloak JWK set, loaded at startup and refreshed in the background, so verifying a
+ * signature never waits on Keycloak. A token signed with an unknown key id triggers one extra refresh,
+ * at most once every {@code minRefreshInterval}, to pick up rotated keys.
+ */
+public class JwkSetCache implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwkSetCache.class);
+    private static final Duration FETCH_TIMEOUT = Duration.ofSeconds(5);
+
+    private final WebClient webClient;
+    private final String jwkSetUri;
+    private final long minRefreshNanos;
+    private final AtomicReference<JWKSet> jwkSet = new AtomicReference<>(new JWKSet());
+    private final AtomicReference<Mono<JWKSet>> inFlight = new AtomicReference<>();
+    private final Counter refreshed;
+    private final Counter refreshFailures;
+    private final Disposable backgroundRefresh;
+    private volatile long lastRefreshNanos;
+
+    public JwkSetCache(String jwkSetUri, Duration refreshInterval, Duration minRefreshInterval,
+                       MeterRegistry meterRegistry) {
+        this.webClient = WebClient.create();
+        this.jwkSetUri = jwkSetUri;
+        this.minRefreshNanos = minRefreshInterval.toNanos();
+        this.lastRefreshNanos = System.nanoTime() - minRefreshNanos;
+        this.refreshed = Counter.builder("gateway.jwks.refresh")
+                .description("Loads of the JWK set from the authorization server")
+                .tag("outcome", "success")
+                .register(meterRegistry);
+        this.refreshFailures = Counter.builder("gateway.jwks.refresh")
+                .description("Loads of the JWK set from the authorization server")
+                .tag("outcome", "failure")
+                .register(meterRegistry);
+        this.backgroundRefresh = Flux.interval(Duration.ZERO, refreshInterval)
+                .concatMap(tick -> refresh().onErrorResume(e -> Mono.empty()))
+                .subscribe();
+    }
+
+    /**
+     * JWK source for {@code NimbusReactiveJwtDecoder}: the keys matching the header of the token.
+     */
+    public Flux<JWK> select(SignedJWT signedJwt) {
+        JWKSelector selector = new JWKSelector(JWKMatcher.forJWSHeader(signedJwt.getHeader()));
+        List<JWK> keys = selector.select(jwkSet.get());
+        if (!keys.isEmpty()) {
+            return Flux.fromIterable(keys);
+        }
+        if (System.nanoTime() - lastRefreshNanos < minRefreshNanos) {
+            return Flux.empty();
+        }
+        logger.debug("No JWK matches key id {}, refreshing the JWK set", signedJwt.getHeader().getKeyID());
+        return refresh().flatMapIterable(selector::select);
+    }
+
+    /**
+     * Loads the JWK set; concurrent callers share the request that is already running.
+     */
+    private Mono<JWKSet> refresh() {
+        return Mono.defer(() -> {
+            Mono<JWKSet> running = inFlight.get();
+            if (running != null) {
+                return running;
+            }
+            Mono<JWKSet> fetch = fetch()
+                    .doFinally(signal -> inFlight.set(null))
+                    .cache();
+            return inFlight.compareAndSet(null, fetch) ? fetch : refresh();
+        });
+    }
+
+    private Mono<JWKSet> fetch() {
+        return webClient.get()
+                .uri(jwkSetUri)
+                .retrieve()
+                .bodyToMono(String.class)
+                .timeout(FETCH_TIMEOUT)
+                .map(JwkSetCache::parse)
+                .doOnNext(keys -> {
+                    jwkSet.set(keys);
+                    lastRefreshNanos = System.nanoTime();
+                    refreshed.increment();
+                    logger.debug("Loaded {} keys from {}", keys.getKeys().size(), jwkSetUri);
+                })
+                .doOnError(e -> {
+                    lastRefreshNanos = System.nanoTime();
+                    refreshFailures.increment();
+                    logger.warn("Could not load the JWK set from {}: {}", jwkSetUri, e.getMessage());
+                });
+    }
+
+    private static JWKSet parse(String body) {
+        try {
+            return JWKSet.parse(body);
+        } catch (ParseException e) {
+            throw new IllegalStateException("Invalid JWK set", e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        backgroundRefresh.dispose();
+    }
+}
@@ -1,41 +1,51 @@
 package com.pavila.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.ws.rs.HttpMethod;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.core.convert.converter.Converter;
-import org.springframework.security.authentication.AbstractAuthenticationToken;
-import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
-import org.springframework.security.oauth2.jwt.Jwt;
-import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
-import org.springframework.security.oauth2.server.resource.authentication.ReactiveJwtAuthenticationConverterAdapter;
+import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
 import org.springframework.security.web.server.SecurityWebFilterChain;
-import reactor.core.publisher.Mono;
+
+import java.time.Duration;
 
 @Configuration
 @EnableWebFluxSecurity
 public class SecurityConfig {
 
     @Bean
-    public SecurityWebFilterChain springSecurityFilterChain(ServerHttpSecurity serverHttpSecurity){
+    public SecurityWebFilterChain springSecurityFilterChain(ServerHttpSecurity serverHttpSecurity,
+                                                            VerifiedJwtCache verifiedJwtCache){
         serverHttpSecurity.authorizeExchange(exchanges -> exchanges
                         .pathMatchers(HttpMethod.GET, "/library/books/api/info", "/library/reviews/api/info").permitAll()
                         .pathMatchers("/library/books/**").hasRole("BOOKS")
                         .pathMatchers("/library/reviews/**").hasRole("REVIEWS"))
                 .oauth2ResourceServer(oAuth2ResourceServerSpec -> oAuth2ResourceServerSpec
-                        .jwt(jwtSpec -> jwtSpec.jwtAuthenticationConverter(grantedAuthoritiesExtractor())));
+                        .jwt(jwtSpec -> jwtSpec
+                                .jwtDecoder(verifiedJwtCache)
+                                .jwtAuthenticationConverter(verifiedJwtCache)));
         serverHttpSecurity.csrf(ServerHttpSecurity.CsrfSpec::disable);
         return serverHttpSecurity.build();
     }
 
-    private Converter<Jwt, Mono<AbstractAuthenticationToken>> grantedAuthoritiesExtractor() {
-        JwtAuthenticationConverter jwtAuthenticationConverter =
-                new JwtAuthenticationConverter();
-        jwtAuthenticationConverter.setJwtGrantedAuthoritiesConverter
-                (new KeycloakRoleConverter());
-        return new ReactiveJwtAuthenticationConverterAdapter(jwtAuthenticationConverter);
+    @Bean
+    public JwkSetCache jwkSetCache(@Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri}") String jwkSetUri,
+                                   @Value("${gateway.jwks.refresh-interval:5m}") Duration refreshInterval,
+                                   @Value("${gateway.jwks.min-refresh-interval:30s}") Duration minRefreshInterval,
+                                   MeterRegistry meterRegistry) {
+        return new JwkSetCache(jwkSetUri, refreshInterval, minRefreshInterval, meterRegistry);
+    }
+
+    @Bean
+    public VerifiedJwtCache verifiedJwtCache(JwkSetCache jwkSetCache,
+                                             @Value("${gateway.jwt-cache.max-size:10000}") long maxSize,
+                                             @Value("${gateway.jwt-cache.max-ttl:5m}") Duration maxTtl,
+                                             MeterRegistry meterRegistry) {
+        NimbusReactiveJwtDecoder jwtDecoder = NimbusReactiveJwtDecoder.withJwkSource(jwkSetCache::select).build();
+        return new VerifiedJwtCache(jwtDecoder, new KeycloakRoleConverter(), maxSize, maxTtl, meterRegistry);
     }
 
 }
@@ -0,0 +1,94 @@
+package com.pavila.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Decoder and authentication converter that remember verified tokens. The first request with a token
+ * verifies it through the delegate and derives its authorities; later requests with the same token,
+ * looked up by its SHA-256 hash, skip both steps. An entry lives until the token expires and at most
+ * {@code maxTtl}.
+ */
+public class VerifiedJwtCache implements ReactiveJwtDecoder, Converter<Jwt, Mono<AbstractAuthenticationToken>> {
+
+    private final ReactiveJwtDecoder delegate;
+    private final Converter<Jwt, Collection<GrantedAuthority>> authoritiesConverter;
+    private final Cache<String, VerifiedJwt> cache;
+
+    public VerifiedJwtCache(ReactiveJwtDecoder delegate,
+                            Converter<Jwt, Collection<GrantedAuthority>> authoritiesConverter,
+                            long maxSize, Duration maxTtl, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.authoritiesConverter = authoritiesConverter;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(Expiry.creating((String key, VerifiedJwt value) -> ttl(value.jwt(), maxTtl)))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "verifiedJwtCache");
+    }
+
+    @Override
+    public Mono<Jwt> decode(String token) throws JwtException {
+        String key = hash(token);
+        VerifiedJwt cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return Mono.just(cached.jwt());
+        }
+        return delegate.decode(token)
+                .doOnNext(jwt -> cache.put(key, new VerifiedJwt(jwt, List.copyOf(authoritiesConverter.convert(jwt)))));
+    }
+
+    @Override
+    public Mono<AbstractAuthenticationToken> convert(Jwt jwt) {
+        VerifiedJwt cached = cache.getIfPresent(hash(jwt.getTokenValue()));
+        Collection<GrantedAuthority> authorities = cached != null
+                ? cached.authorities()
+                : authoritiesConverter.convert(jwt);
+        return Mono.just(new JwtAuthenticationToken(jwt, authorities));
+    }
+
+    private static Duration ttl(Jwt jwt, Duration maxTtl) {
+        Instant expiresAt = jwt.getExpiresAt();
+        if (expiresAt == null) {
+            return maxTtl;
+        }
+        Duration untilExpiry = Duration.between(Instant.now(), expiresAt);
+        if (untilExpiry.isNegative()) {
+            return Duration.ZERO;
+        }
+        return untilExpiry.compareTo(maxTtl) < 0 ? untilExpiry : maxTtl;
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record VerifiedJwt(Jwt jwt, Collection<GrantedAuthority> authorities) {
+    }
+}
@@ -0,0 +1,82 @@
+package com.pavila.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ORIGINAL_REQUEST_URL_ATTR;
+
+/**
+ * Targets of the circuit breakers of the library routes, reached when a service fails, times out or its
+ * breaker is open. Listing the reviews of a book degrades to an empty page; anything else gets a 503.
+ */
+@RestController
+@RequestMapping("/fallback")
+public class FallbackController {
+
+    private static final Logger logger = LoggerFactory.getLogger(FallbackController.class);
+
+    public static final String FALLBACK_HEADER = "X-Fallback";
+    private static final String REVIEWS_PAGE_PATH = "/library/reviews/api/reviews/{bookId}";
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    @RequestMapping("/books")
+    public Mono<ResponseEntity<Map<String, Object>>> booksFallback(ServerWebExchange exchange) {
+        return Mono.just(unavailable(exchange, "BOOKS"));
+    }
+
+    @RequestMapping("/reviews")
+    public Mono<ResponseEntity<Map<String, Object>>> reviewsFallback(ServerWebExchange exchange) {
+        String path = originalPath(exchange);
+        if (HttpMethod.GET.equals(exchange.getRequest().getMethod()) && PATH_MATCHER.match(REVIEWS_PAGE_PATH, path)) {
+            logFailure(exchange, "REVIEWS", path);
+            Map<String, Object> emptyPage = new LinkedHashMap<>();
+            emptyPage.put("content", List.of());
+            emptyPage.put("size", 0);
+            emptyPage.put("hasNext", false);
+            emptyPage.put("next", null);
+            return Mono.just(ResponseEntity.ok().header(FALLBACK_HEADER, "empty").body(emptyPage));
+        }
+        return Mono.just(unavailable(exchange, "REVIEWS"));
+    }
+
+    private ResponseEntity<Map<String, Object>> unavailable(ServerWebExchange exchange, String service) {
+        String path = originalPath(exchange);
+        logFailure(exchange, service, path);
+        Map<String, Object> error = new LinkedHashMap<>();
+        error.put("apiPath", path);
+        error.put("errorCode", HttpStatus.SERVICE_UNAVAILABLE);
+        error.put("errorMessage", service + " service is temporarily unavailable, please try again later");
+        error.put("errorTime", LocalDateTime.now());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(FALLBACK_HEADER, "unavailable").body(error);
+    }
+
+    private static void logFailure(ServerWebExchange exchange, String service, String path) {
+        Throwable cause = exchange.getAttribute(CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR);
+        logger.warn("Fallback for {} {} on {}: {}", exchange.getRequest().getMethod(), path, service,
+                cause != null ? cause.toString() : "circuit open");
+    }
+
+    private static String originalPath(ServerWebExchange exchange) {
+        Set<URI> originalUrls = exchange.getAttribute(GATEWAY_ORIGINAL_REQUEST_URL_ATTR);
+        if (originalUrls == null || originalUrls.isEmpty()) {
+            return exchange.getRequest().getPath().value();
+        }
+        return originalUrls.iterator().next().getPath();
+    }
+}
@@ -0,0 +1,120 @@
+package com.pavila.filters;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Measures every request through the gateway. The total time runs from the first gateway filter to the
+ * last byte written to the client; the upstream time runs from the proxied call leaving the gateway to
+ * its response headers arriving. Both are published per route as {@code gateway.route.latency} and
+ * {@code gateway.route.upstream.latency} and sent to the client in a {@code Server-Timing} header.
+ * The timers publish histograms only; percentiles are computed by the monitoring backend.
+ */
+@Component
+public class LatencyTraceFilter implements GlobalFilter, Ordered {
+
+    private static final Logger logger = LoggerFactory.getLogger(LatencyTraceFilter.class);
+
+    public static final String SERVER_TIMING = "Server-Timing";
+    private static final String UPSTREAM_NANOS_ATTR = LatencyTraceFilter.class.getName() + ".upstreamNanos";
+
+    private final Meter.MeterProvider<Timer> latency;
+    private final Meter.MeterProvider<Timer> upstreamLatency;
+
+    public LatencyTraceFilter(MeterRegistry meterRegistry) {
+        this.latency = Timer.builder("gateway.route.latency")
+                .description("Time spent by the gateway on a request, until its last byte is written")
+                .publishPercentileHistogram()
+                .withRegistry(meterRegistry);
+        this.upstreamLatency = Timer.builder("gateway.route.upstream.latency")
+                .description("Time from a request being proxied to its response headers")
+                .publishPercentileHistogram()
+                .withRegistry(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        long start = System.nanoTime();
+        exchange.getResponse().beforeCommit(() -> {
+            exchange.getResponse().getHeaders().set(SERVER_TIMING, serverTiming(exchange, System.nanoTime() - start));
+            return Mono.empty();
+        });
+        return chain.filter(exchange)
+                .doFinally(signal -> record(exchange, System.nanoTime() - start));
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    private void record(ServerWebExchange exchange, long totalNanos) {
+        String route = routeId(exchange);
+        String status = status(exchange.getResponse().getStatusCode());
+        latency.withTags("route", route, "status", status).record(totalNanos, TimeUnit.NANOSECONDS);
+
+        Long upstreamNanos = exchange.getAttribute(UPSTREAM_NANOS_ATTR);
+        if (upstreamNanos != null) {
+            upstreamLatency.withTags("route", route, "status", status).record(upstreamNanos, TimeUnit.NANOSECONDS);
+        }
+        logger.debug("{} {} on route {} took {} ms (upstream {} ms)", exchange.getRequest().getMethod(),
+                exchange.getRequest().getPath(), route, toMillis(totalNanos),
+                upstreamNanos != null ? toMillis(upstreamNanos) : "-");
+    }
+
+    private static String serverTiming(ServerWebExchange exchange, long totalNanos) {
+        Long upstreamNanos = exchange.getAttribute(UPSTREAM_NANOS_ATTR);
+        String total = "gateway;dur=" + toMillis(totalNanos);
+        return upstreamNanos == null ? total : "upstream;dur=" + toMillis(upstreamNanos) + ", " + total;
+    }
+
+    private static String routeId(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        return route != null ? route.getId() : "none";
+    }
+
+    private static String status(HttpStatusCode statusCode) {
+        return statusCode != null ? String.valueOf(statusCode.value()) : "UNKNOWN";
+    }
+
+    private static String toMillis(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1_000_000.0);
+    }
+
+    /**
+     * Runs right before {@link NettyRoutingFilter}, whose completion marks the arrival of the upstream
+     * response headers; the body is streamed to the client afterwards.
+     */
+    @Component
+    public static class UpstreamTimingFilter implements GlobalFilter, Ordered {
+
+        @Override
+        public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+            long start = System.nanoTime();
+            return chain.filter(exchange)
+                    .doOnSuccess(done -> exchange.getAttributes().put(UPSTREAM_NANOS_ATTR, System.nanoTime() - start));
+        }
+
+        @Override
+        public int getOrder() {
+            return NettyRoutingFilter.ORDER - 1;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.pavila.filters;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory token bucket per route and caller for {@code RequestRateLimiter}. Each route allows bursts of
+ * {@code capacity} requests refilled at {@code refill-per-second}, as configured under
+ * {@code gateway.rate-limit.routes.<routeId>} or {@code gateway.rate-limit.default}.
+ * <p>
+ * A bucket is a single {@link AtomicLong} updated with compare-and-set (the GCRA form of a token bucket),
+ * so concurrent requests of one caller never block each other. Idle buckets expire after {@code idle-ttl}.
+ */
+@Component
+public class LocalRateLimiter implements RateLimiter<LocalRateLimiter.Limit> {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalRateLimiter.class);
+
+    public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+    public static final String LIMIT_HEADER = "X-RateLimit-Limit";
+
+    private final Map<String, Limit> limits;
+    private final Limit defaultLimit;
+    private final Cache<String, Bucket> buckets;
+    private final Meter.MeterProvider<Counter> requests;
+
+    public LocalRateLimiter(Environment environment, MeterRegistry meterRegistry) {
+        Binder binder = Binder.get(environment);
+        this.limits = new HashMap<>(binder.bind("gateway.rate-limit.routes", Bindable.mapOf(String.class, Limit.class))
+                .orElseGet(Map::of));
+        this.defaultLimit = binder.bind("gateway.rate-limit.default", Limit.class)
+                .orElseGet(() -> new Limit(100, 50));
+        Duration idleTtl = binder.bind("gateway.rate-limit.idle-ttl", Duration.class).orElse(Duration.ofMinutes(10));
+        long maxBuckets = binder.bind("gateway.rate-limit.max-buckets", Long.class).orElse(100_000L);
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfterAccess(idleTtl)
+                .recordStats()
+                .build();
+        this.requests = Counter.builder("gateway.ratelimit.requests")
+                .description("Requests checked by the gateway rate limiter")
+                .withRegistry(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, buckets, "rateLimitBuckets");
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        Limit limit = limits.getOrDefault(routeId, defaultLimit);
+        Bucket bucket = buckets.get(routeId + "|" + id, key -> new Bucket());
+        long waitNanos = bucket.tryAcquire(limit, System.nanoTime());
+
+        Map<String, String> headers = new HashMap<>();
+        headers.put(LIMIT_HEADER, String.valueOf(limit.capacity()));
+        if (waitNanos == 0) {
+            headers.put(REMAINING_HEADER, String.valueOf(bucket.remaining(limit, System.nanoTime())));
+            requests.withTags("route", routeId, "outcome", "allowed").increment();
+            return Mono.just(new Response(true, headers));
+        }
+        headers.put(REMAINING_HEADER, "0");
+        headers.put(HttpHeaders.RETRY_AFTER, String.valueOf(TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999)));
+        requests.withTags("route", routeId, "outcome", "rejected").increment();
+        logger.debug("Rate limit exceeded on route {} for {}", routeId, id);
+        return Mono.just(new Response(false, headers));
+    }
+
+    @Override
+    public Map<String, Limit> getConfig() {
+        return limits;
+    }
+
+    @Override
+    public Class<Limit> getConfigClass() {
+        return Limit.class;
+    }
+
+    @Override
+    public Limit newConfig() {
+        return defaultLimit;
+    }
+
+    /**
+     * Bucket size and refill rate of a route.
+     */
+    public record Limit(int capacity, double refillPerSecond) {
+
+        long intervalNanos() {
+            return (long) (TimeUnit.SECONDS.toNanos(1) / refillPerSecond);
+        }
+
+        long burstNanos() {
+            return intervalNanos() * (capacity - 1L);
+        }
+    }
+
+    /**
+     * Holds the time at which the bucket is full again. Each request moves it one refill interval forward;
+     * a request is rejected while that time is more than a full bucket ahead of now.
+     */
+    static final class Bucket {
+
+        private final AtomicLong fullAt = new AtomicLong(Long.MIN_VALUE);
+
+        /**
+         * @return 0 when a token was taken, otherwise the nanoseconds until the next one is available
+         */
+        long tryAcquire(Limit limit, long now) {
+            long interval = limit.intervalNanos();
+            long burst = limit.burstNanos();
+            while (true) {
+                long current = fullAt.get();
+                long base = current == Long.MIN_VALUE || current < now ? now : current;
+                long wait = base - now - burst;
+                if (wait > 0) {
+                    return wait;
+                }
+                if (fullAt.compareAndSet(current, base + interval)) {
+                    return 0;
+                }
+            }
+        }
+
+        long remaining(Limit limit, long now) {
+            long current = fullAt.get();
+            long ahead = Math.max(0, current - now);
+            return Math.max(0, limit.capacity() - (ahead + limit.intervalNanos() - 1) / limit.intervalNanos());
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.pavila.filters;
+
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.security.Principal;
+import java.util.Optional;
+
+/**
+ * Rate limit key: the JWT subject of authenticated callers, otherwise the client IP address.
+ */
+@Component
+public class PrincipalOrIpKeyResolver implements KeyResolver {
+
+    @Override
+    public Mono<String> resolve(ServerWebExchange exchange) {
+        return exchange.getPrincipal()
+                .map(Principal::getName)
+                .map(name -> "sub:" + name)
+                .switchIfEmpty(Mono.fromSupplier(() -> "ip:" + Optional.ofNullable(exchange.getRequest().getRemoteAddress())
+                        .map(InetSocketAddress::getAddress)
+                        .map(address -> address.getHostAddress())
+                        .orElse("unknown")));
+    }
+}
@@ -0,0 +1,314 @@
+package com.pavila.filters;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * In-memory cache for successful GET responses of the routes it is added to. Entries are keyed on path,
+ * query and the caller roles. They are fresh for {@code ttl}; for a further {@code stale-ttl} they are still
+ * served while a single background request per key fetches a new copy from the service.
+ * The cache is bounded by the total size of the stored bodies, {@code max-bytes}; a response is stored only
+ * when its body fits in {@code max-entry-bytes} and its {@code Cache-Control} allows a shared cache to keep it.
+ * A background request gives up after the response timeout of the {@code books} route, the only one using the cache.
+ * The filter comes first in the route, so hits are served ahead of the rate limiter and the circuit breaker and
+ * do not count against either.
+ * Hit, miss and eviction counts are published as the {@code cache.*} meters of {@code gatewayResponseCache}.
+ */
+@Component
+public class ResponseCacheFilter implements GatewayFilter, Ordered {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResponseCacheFilter.class);
+
+    public static final String CACHE_HEADER = "X-Cache";
+    private static final Set<String> NOT_STORED_HEADERS = Set.of(
+            HttpHeaders.TRANSFER_ENCODING, HttpHeaders.CONNECTION, HttpHeaders.CONTENT_LENGTH,
+            HttpHeaders.SET_COOKIE, HttpHeaders.DATE, FilterUtility.CORRELATION_ID);
+    private static final Set<String> NOT_STORABLE_DIRECTIVES = Set.of("no-store", "no-cache", "private");
+
+    private final Cache<String, CachedResponse> cache;
+    private final ConcurrentHashMap<String, Boolean> revalidating = new ConcurrentHashMap<>();
+    private final WebClient webClient;
+    private final long ttlNanos;
+    private final int maxEntryBytes;
+    private final Duration revalidationTimeout;
+    private final Counter staleHits;
+    private final Counter revalidated;
+    private final Counter revalidationFailures;
+
+    public ResponseCacheFilter(ReactorLoadBalancerExchangeFilterFunction loadBalancerFunction,
+                               MeterRegistry meterRegistry,
+                               @Value("${gateway.response-cache.max-bytes:67108864}") long maxBytes,
+                               @Value("${gateway.response-cache.ttl:10s}") Duration ttl,
+                               @Value("${gateway.response-cache.stale-ttl:30s}") Duration staleTtl,
+                               @Value("${gateway.response-cache.max-entry-bytes:262144}") int maxEntryBytes,
+                               @Value("${gateway.routes.books.response-timeout-ms:2000}") long revalidationTimeoutMs) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, CachedResponse response) -> key.length() + response.body().length)
+                .expireAfterWrite(ttl.plus(staleTtl))
+                .recordStats()
+                .build();
+        this.webClient = WebClient.builder().filter(loadBalancerFunction).build();
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntryBytes = maxEntryBytes;
+        this.revalidationTimeout = Duration.ofMillis(revalidationTimeoutMs);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gatewayResponseCache");
+        this.staleHits = Counter.builder("gateway.response.cache.stale")
+                .description("Stale responses served while a revalidation runs")
+                .register(meterRegistry);
+        this.revalidated = Counter.builder("gateway.response.cache.revalidations")
+                .description("Background revalidations of stale responses")
+                .tag("outcome", "success")
+                .register(meterRegistry);
+        this.revalidationFailures = Counter.builder("gateway.response.cache.revalidations")
+                .description("Background revalidations of stale responses")
+                .tag("outcome", "failure")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!HttpMethod.GET.equals(exchange.getRequest().getMethod())) {
+            return chain.filter(exchange);
+        }
+        return exchange.getPrincipal()
+                .map(ResponseCacheFilter::roles)
+                .defaultIfEmpty("")
+                .flatMap(roles -> {
+                    String key = cacheKey(exchange, roles);
+                    CachedResponse cached = cache.getIfPresent(key);
+                    if (cached == null) {
+                        return chain.filter(exchange.mutate().response(new CachingResponse(exchange, key)).build());
+                    }
+                    if (System.nanoTime() - cached.storedAtNanos() < ttlNanos) {
+                        return write(exchange, cached, "HIT");
+                    }
+                    staleHits.increment();
+                    revalidate(key, cached, exchange.getRequest().getHeaders());
+                    return write(exchange, cached, "STALE");
+                });
+    }
+
+    /**
+     * Runs before {@link NettyWriteResponseFilter} so the proxied body is written through {@link CachingResponse}.
+     */
+    @Override
+    public int getOrder() {
+        return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+    }
+
+    private void revalidate(String key, CachedResponse stale, HttpHeaders requestHeaders) {
+        if (stale.revalidationUri() == null || revalidating.putIfAbsent(key, Boolean.TRUE) != null) {
+            return;
+        }
+        webClient.get()
+                .uri(stale.revalidationUri())
+                .headers(headers -> {
+                    headers.addAll(HttpHeaders.ACCEPT, requestHeaders.getOrEmpty(HttpHeaders.ACCEPT));
+                    headers.addAll(FilterUtility.CORRELATION_ID, requestHeaders.getOrEmpty(FilterUtility.CORRELATION_ID));
+                })
+                .exchangeToMono(response -> isStorable(response.statusCode(), response.headers().asHttpHeaders())
+                        && response.headers().contentLength().orElse(0) <= maxEntryBytes
+                        ? response.bodyToMono(byte[].class)
+                                .defaultIfEmpty(new byte[0])
+                                .filter(body -> body.length <= maxEntryBytes)
+                                .map(body -> CachedResponse.of(HttpStatus.OK, response.headers().asHttpHeaders(),
+                                        body, stale.revalidationUri()))
+                        : response.releaseBody().then(Mono.empty()))
+                .timeout(revalidationTimeout)
+                .doFinally(signal -> revalidating.remove(key))
+                .subscribe(fresh -> {
+                    cache.put(key, fresh);
+                    revalidated.increment();
+                }, e -> {
+                    revalidationFailures.increment();
+                    logger.debug("Could not revalidate cached response {}: {}", key, e.getMessage());
+                });
+    }
+
+    private Mono<Void> write(ServerWebExchange exchange, CachedResponse cached, String cacheStatus) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(cached.status());
+        response.getHeaders().putAll(cached.headers());
+        response.getHeaders().setContentLength(cached.body().length);
+        response.getHeaders().set(CACHE_HEADER, cacheStatus);
+        String correlationId = exchange.getRequest().getHeaders().getFirst(FilterUtility.CORRELATION_ID);
+        if (correlationId != null) {
+            response.getHeaders().set(FilterUtility.CORRELATION_ID, correlationId);
+        }
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(cached.body())));
+    }
+
+    private static String cacheKey(ServerWebExchange exchange, String roles) {
+        URI uri = exchange.getRequest().getURI();
+        return uri.getRawPath() + (uri.getRawQuery() != null ? "?" + uri.getRawQuery() : "") + "|" + roles;
+    }
+
+    private static String roles(Object principal) {
+        if (!(principal instanceof Authentication authentication)) {
+            return "";
+        }
+        return authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .filter(authority -> authority.startsWith("ROLE_"))
+                .sorted()
+                .collect(Collectors.joining(","));
+    }
+
+    /**
+     * Only 200 responses a shared cache may reuse without asking the service: {@code private} ones belong to
+     * a single user and {@code no-cache} ones must be revalidated on every request.
+     */
+    static boolean isStorable(HttpStatusCode status, HttpHeaders headers) {
+        return HttpStatus.OK.equals(status)
+                && headers.getOrEmpty(HttpHeaders.CACHE_CONTROL).stream()
+                        .flatMap(value -> Arrays.stream(value.split(",")))
+                        .map(directive -> directive.split("=", 2)[0].trim().toLowerCase(Locale.ROOT))
+                        .noneMatch(NOT_STORABLE_DIRECTIVES::contains);
+    }
+
+    /**
+     * The service URI of the request, addressed through the load balancer, so a revalidation can skip the
+     * gateway filters. Taken after routing, when the rewritten path is known.
+     */
+    private static URI revalidationUri(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        URI requestUrl = exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR);
+        if (route == null || requestUrl == null || !"lb".equals(route.getUri().getScheme())) {
+            return null;
+        }
+        return UriComponentsBuilder.fromUri(requestUrl)
+                .scheme("http")
+                .host(route.getUri().getHost())
+                .port(-1)
+                .build(true)
+                .toUri();
+    }
+
+    private class CachingResponse extends ServerHttpResponseDecorator {
+
+        private final ServerWebExchange exchange;
+        private final String key;
+
+        CachingResponse(ServerWebExchange exchange, String key) {
+            super(exchange.getResponse());
+            this.exchange = exchange;
+            this.key = key;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            if (!isStorable(getStatusCode(), getHeaders())) {
+                return super.writeWith(body);
+            }
+            getHeaders().set(CACHE_HEADER, "MISS");
+            if (getHeaders().getContentLength() > maxEntryBytes) {
+                return super.writeWith(body);
+            }
+            // The body is written as it arrives and copied aside until it grows past max-entry-bytes;
+            // it is cached only once the service has sent all of it
+            BodyCopy copy = new BodyCopy(maxEntryBytes);
+            return super.writeWith(Flux.from(body)
+                    .doOnNext(copy::append)
+                    .doOnComplete(() -> {
+                        byte[] bytes = copy.bytes();
+                        if (bytes != null) {
+                            cache.put(key, CachedResponse.of(getStatusCode(), getHeaders(), bytes,
+                                    revalidationUri(exchange)));
+                        }
+                    }));
+        }
+    }
+
+    /**
+     * Copy of a body written in chunks, dropped as soon as it grows past {@code limit}.
+     */
+    static final class BodyCopy {
+
+        private final int limit;
+        private ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        BodyCopy(int limit) {
+            this.limit = limit;
+        }
+
+        void append(DataBuffer buffer) {
+            if (bytes == null) {
+                return;
+            }
+            int length = buffer.readableByteCount();
+            if (bytes.size() + length > limit) {
+                bytes = null;
+                return;
+            }
+            byte[] chunk = new byte[length];
+            int position = buffer.readPosition();
+            buffer.read(chunk);
+            buffer.readPosition(position);
+            bytes.write(chunk, 0, length);
+        }
+
+        /**
+         * @return the whole body, or {@code null} when it was larger than the limit
+         */
+        byte[] bytes() {
+            return bytes == null ? null : bytes.toByteArray();
+        }
+    }
+
+    private record CachedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body, URI revalidationUri,
+                                  long storedAtNanos) {
+
+        static CachedResponse of(HttpStatusCode status, HttpHeaders source, byte[] body, URI revalidationUri) {
+            HttpHeaders headers = new HttpHeaders();
+            source.forEach((name, values) -> {
+                if (NOT_STORED_HEADERS.stream().noneMatch(name::equalsIgnoreCase)) {
+                    headers.put(name, List.copyOf(values));
+                }
+            });
+            return new CachedResponse(status, HttpHeaders.readOnlyHttpHeaders(headers), body, revalidationUri,
+                    System.nanoTime());
+        }
+    }
+}
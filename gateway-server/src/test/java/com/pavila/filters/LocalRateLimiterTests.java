@@ -0,0 +1,112 @@
+package com.pavila.filters;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalRateLimiterTests {
+
+	private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+	// Bursts of 3, one token every 100 ms
+	private final LocalRateLimiter.Limit limit = new LocalRateLimiter.Limit(3, 10);
+
+	@Test
+	void newBucketAllowsAFullBurst() {
+		LocalRateLimiter.Bucket bucket = new LocalRateLimiter.Bucket();
+		long now = 0;
+
+		assertThat(bucket.remaining(limit, now)).isEqualTo(3);
+		assertThat(bucket.tryAcquire(limit, now)).isZero();
+		assertThat(bucket.remaining(limit, now)).isEqualTo(2);
+		assertThat(bucket.tryAcquire(limit, now)).isZero();
+		assertThat(bucket.tryAcquire(limit, now)).isZero();
+		assertThat(bucket.remaining(limit, now)).isZero();
+	}
+
+	@Test
+	void exhaustedBucketReportsTheWaitForTheNextToken() {
+		LocalRateLimiter.Bucket bucket = exhausted(0);
+
+		assertThat(bucket.tryAcquire(limit, 0)).isEqualTo(SECOND / 10);
+		assertThat(bucket.tryAcquire(limit, SECOND / 20)).isEqualTo(SECOND / 20);
+		assertThat(bucket.remaining(limit, SECOND / 20)).isZero();
+	}
+
+	@Test
+	void rejectedRequestsDoNotConsumeTokens() {
+		LocalRateLimiter.Bucket bucket = exhausted(0);
+		for (int i = 0; i < 10; i++) {
+			assertThat(bucket.tryAcquire(limit, 0)).isPositive();
+		}
+
+		assertThat(bucket.tryAcquire(limit, SECOND / 10)).isZero();
+	}
+
+	@Test
+	void bucketRefillsOverTimeUpToItsCapacity() {
+		LocalRateLimiter.Bucket bucket = exhausted(0);
+
+		assertThat(bucket.remaining(limit, SECOND / 10)).isEqualTo(1);
+		assertThat(bucket.remaining(limit, 2 * SECOND / 10)).isEqualTo(2);
+		assertThat(bucket.remaining(limit, 10 * SECOND)).isEqualTo(3);
+
+		LocalRateLimiter.Bucket idle = exhausted(0);
+		long later = 10 * SECOND;
+		for (int i = 0; i < 3; i++) {
+			assertThat(idle.tryAcquire(limit, later)).isZero();
+		}
+		assertThat(idle.tryAcquire(limit, later)).isPositive();
+	}
+
+	@Test
+	void rejectionCarriesRetryAfterInWholeSeconds() {
+		MockEnvironment environment = new MockEnvironment()
+				.withProperty("gateway.rate-limit.routes.books.capacity", "2")
+				.withProperty("gateway.rate-limit.routes.books.refill-per-second", "0.5");
+		LocalRateLimiter rateLimiter = new LocalRateLimiter(environment, new SimpleMeterRegistry());
+
+		RateLimiter.Response first = rateLimiter.isAllowed("books", "alice").block();
+		RateLimiter.Response second = rateLimiter.isAllowed("books", "alice").block();
+		RateLimiter.Response third = rateLimiter.isAllowed("books", "alice").block();
+		RateLimiter.Response otherCaller = rateLimiter.isAllowed("books", "bob").block();
+
+		assertThat(first.isAllowed()).isTrue();
+		assertThat(first.getHeaders()).containsEntry(LocalRateLimiter.LIMIT_HEADER, "2")
+				.containsEntry(LocalRateLimiter.REMAINING_HEADER, "1");
+		assertThat(second.isAllowed()).isTrue();
+		assertThat(second.getHeaders()).containsEntry(LocalRateLimiter.REMAINING_HEADER, "0");
+		assertThat(third.isAllowed()).isFalse();
+		assertThat(third.getHeaders()).containsEntry(LocalRateLimiter.REMAINING_HEADER, "0")
+				.containsEntry(HttpHeaders.RETRY_AFTER, "2");
+		assertThat(otherCaller.isAllowed()).isTrue();
+	}
+
+	@Test
+	void routesWithoutTheirOwnLimitUseTheDefault() {
+		MockEnvironment environment = new MockEnvironment()
+				.withProperty("gateway.rate-limit.default.capacity", "1")
+				.withProperty("gateway.rate-limit.default.refill-per-second", "1");
+		LocalRateLimiter rateLimiter = new LocalRateLimiter(environment, new SimpleMeterRegistry());
+
+		assertThat(rateLimiter.isAllowed("reviews", "alice").block().isAllowed()).isTrue();
+		RateLimiter.Response rejected = rateLimiter.isAllowed("reviews", "alice").block();
+		assertThat(rejected.isAllowed()).isFalse();
+		assertThat(rejected.getHeaders()).containsEntry(LocalRateLimiter.LIMIT_HEADER, "1")
+				.containsEntry(HttpHeaders.RETRY_AFTER, "1");
+	}
+
+	private LocalRateLimiter.Bucket exhausted(long now) {
+		LocalRateLimiter.Bucket bucket = new LocalRateLimiter.Bucket();
+		for (int i = 0; i < limit.capacity(); i++) {
+			assertThat(bucket.tryAcquire(limit, now)).isZero();
+		}
+		return bucket;
+	}
+}
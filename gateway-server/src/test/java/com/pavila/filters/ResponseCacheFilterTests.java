@@ -0,0 +1,132 @@
+package com.pavila.filters;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class ResponseCacheFilterTests {
+
+	private final ResponseCacheFilter filter = new ResponseCacheFilter(
+			mock(ReactorLoadBalancerExchangeFilterFunction.class), new SimpleMeterRegistry(),
+			1024, Duration.ofSeconds(10), Duration.ofSeconds(30), 8, 2000);
+
+	@Test
+	void chunkedBodyIsStreamedAndCachedOnceComplete() {
+		MockServerWebExchange miss = get("/books/1");
+		filter.filter(miss, respond(null, "abc", "def")).block();
+		assertThat(miss.getResponse().getHeaders().getFirst(ResponseCacheFilter.CACHE_HEADER)).isEqualTo("MISS");
+		assertThat(miss.getResponse().getBodyAsString().block()).isEqualTo("abcdef");
+
+		MockServerWebExchange hit = get("/books/1");
+		filter.filter(hit, respond(null, "not", "used")).block();
+		assertThat(hit.getResponse().getHeaders().getFirst(ResponseCacheFilter.CACHE_HEADER)).isEqualTo("HIT");
+		assertThat(hit.getResponse().getBodyAsString().block()).isEqualTo("abcdef");
+	}
+
+	@Test
+	void bodyLargerThanTheEntryLimitIsPassedOnUncached() {
+		MockServerWebExchange first = get("/books/2");
+		filter.filter(first, respond(null, "abcde", "fghij")).block();
+		assertThat(first.getResponse().getBodyAsString().block()).isEqualTo("abcdefghij");
+
+		MockServerWebExchange second = get("/books/2");
+		filter.filter(second, respond(null, "abcde", "fghij")).block();
+		assertThat(second.getResponse().getHeaders().getFirst(ResponseCacheFilter.CACHE_HEADER)).isEqualTo("MISS");
+	}
+
+	@Test
+	void declaredContentLengthAboveTheEntryLimitSkipsTheCopy() {
+		MockServerWebExchange first = get("/books/3");
+		filter.filter(first, respond(10L, "abcde", "fghij")).block();
+		assertThat(first.getResponse().getBodyAsString().block()).isEqualTo("abcdefghij");
+
+		MockServerWebExchange second = get("/books/3");
+		filter.filter(second, respond(10L, "abcde", "fghij")).block();
+		assertThat(second.getResponse().getHeaders().getFirst(ResponseCacheFilter.CACHE_HEADER)).isEqualTo("MISS");
+	}
+
+	@Test
+	void okResponseWithoutCacheControlIsStorable() {
+		assertThat(ResponseCacheFilter.isStorable(HttpStatus.OK, new HttpHeaders())).isTrue();
+		assertThat(ResponseCacheFilter.isStorable(HttpStatus.OK, cacheControl("public, max-age=60"))).isTrue();
+	}
+
+	@Test
+	void privateNoCacheAndNoStoreResponsesAreNotStorable() {
+		assertThat(ResponseCacheFilter.isStorable(HttpStatus.OK, cacheControl("private"))).isFalse();
+		assertThat(ResponseCacheFilter.isStorable(HttpStatus.OK, cacheControl("max-age=60, No-Cache"))).isFalse();
+		assertThat(ResponseCacheFilter.isStorable(HttpStatus.OK, cacheControl("no-cache=\"Set-Cookie\""))).isFalse();
+		assertThat(ResponseCacheFilter.isStorable(HttpStatus.OK, cacheControl("no-store"))).isFalse();
+	}
+
+	@Test
+	void errorResponsesAreNotStorable() {
+		assertThat(ResponseCacheFilter.isStorable(HttpStatus.NOT_FOUND, new HttpHeaders())).isFalse();
+	}
+
+	@Test
+	void bodyCopyKeepsTheBuffersReadable() {
+		ResponseCacheFilter.BodyCopy copy = new ResponseCacheFilter.BodyCopy(10);
+		DataBuffer first = buffer("abc");
+		DataBuffer second = buffer("def");
+
+		copy.append(first);
+		copy.append(second);
+
+		assertThat(new String(copy.bytes(), StandardCharsets.UTF_8)).isEqualTo("abcdef");
+		assertThat(first.toString(StandardCharsets.UTF_8)).isEqualTo("abc");
+		assertThat(second.readableByteCount()).isEqualTo(3);
+	}
+
+	@Test
+	void bodyCopyIsDroppedOnceItExceedsTheLimit() {
+		ResponseCacheFilter.BodyCopy copy = new ResponseCacheFilter.BodyCopy(4);
+
+		copy.append(buffer("abc"));
+		copy.append(buffer("de"));
+		copy.append(buffer("f"));
+
+		assertThat(copy.bytes()).isNull();
+	}
+
+	private static MockServerWebExchange get(String path) {
+		return MockServerWebExchange.from(MockServerHttpRequest.get(path));
+	}
+
+	/**
+	 * Stands in for the proxied service: sets the status and headers and writes the chunks.
+	 */
+	private static GatewayFilterChain respond(Long contentLength, String... chunks) {
+		return exchange -> {
+			exchange.getResponse().setStatusCode(HttpStatus.OK);
+			if (contentLength != null) {
+				exchange.getResponse().getHeaders().setContentLength(contentLength);
+			}
+			return exchange.getResponse().writeWith(Flux.fromArray(chunks).map(ResponseCacheFilterTests::buffer));
+		};
+	}
+
+	private static HttpHeaders cacheControl(String value) {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setCacheControl(value);
+		return headers;
+	}
+
+	private static DataBuffer buffer(String value) {
+		return DefaultDataBufferFactory.sharedInstance.wrap(value.getBytes(StandardCharsets.UTF_8));
+	}
+}
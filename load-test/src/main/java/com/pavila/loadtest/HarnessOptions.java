@@ -0,0 +1,117 @@
+package com.pavila.loadtest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Command line of the harness, {@code --name value} pairs; every option has a default.
+ *
+ * @param root              directory holding the service modules, each already built with {@code mvn package}
+ * @param clients           simulated users, each with its own token and one request in flight
+ * @param warmup            load applied before measuring, so the JIT and the caches settle
+ * @param duration          measured load
+ * @param mix               relative weight of each {@link Workload.Operation}, e.g. {@code book-details=60,review-create=20}
+ * @param seedBooks         books created before the load starts
+ * @param lagInterval       pause between two event propagation probes
+ * @param lagTimeout        time after which a probe whose event has not arrived counts as lost
+ * @param ports             HTTP port of each service with a web server
+ * @param jvmArgs           JVM options of every service process
+ * @param serviceArgs       extra Spring properties for every service, e.g. {@code --gateway.rate-limit.routes.books.refill-per-second=1000}
+ * @param serviceEnv        extra environment of every service process, e.g. {@code VIRTUAL_THREADS_ENABLED=true}
+ * @param kafkaPartitions   partitions of each topic on the embedded broker
+ * @param startupTimeout    time the services get to become ready
+ * @param out               JSON report
+ */
+record HarnessOptions(Path root, int clients, Duration warmup, Duration duration, Map<Workload.Operation, Integer> mix,
+                      int seedBooks, Duration lagInterval, Duration lagTimeout, Map<String, Integer> ports,
+                      List<String> jvmArgs, List<String> serviceArgs, Map<String, String> serviceEnv,
+                      int kafkaPartitions, Duration startupTimeout, Path out) {
+
+    static final String DEFAULT_MIX = "book-details=50,book-page=15,reviews-page=15,review-create=15,book-create=5";
+
+    private static final Set<String> NAMES = Set.of("root", "clients", "warmup", "duration", "mix", "seed-books",
+            "lag-interval", "lag-timeout", "gateway-port", "books-port", "reviews-port", "jvm-args",
+            "service-args", "service-env", "kafka-partitions", "startup-timeout", "out");
+
+    static HarnessOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (int i = 0; i < args.length; i += 2) {
+            String name = args[i].startsWith("--") ? args[i].substring(2) : args[i];
+            if (!NAMES.contains(name) || i + 1 == args.length) {
+                throw new IllegalArgumentException("Unknown option or missing value: " + args[i]
+                        + ". Options: --" + String.join(", --", NAMES.stream().sorted().toList()));
+            }
+            values.put(name, args[i + 1]);
+        }
+
+        Map<String, Integer> ports = new LinkedHashMap<>();
+        ports.put(ServiceProcess.GATEWAY, Integer.parseInt(values.getOrDefault("gateway-port", "8072")));
+        ports.put(ServiceProcess.BOOKS, Integer.parseInt(values.getOrDefault("books-port", "8080")));
+        ports.put(ServiceProcess.REVIEWS, Integer.parseInt(values.getOrDefault("reviews-port", "8001")));
+
+        return new HarnessOptions(
+                Path.of(values.getOrDefault("root", defaultRoot())).toAbsolutePath().normalize(),
+                Integer.parseInt(values.getOrDefault("clients", "200")),
+                duration(values.getOrDefault("warmup", "15s")),
+                duration(values.getOrDefault("duration", "60s")),
+                mix(values.getOrDefault("mix", DEFAULT_MIX)),
+                Integer.parseInt(values.getOrDefault("seed-books", "200")),
+                duration(values.getOrDefault("lag-interval", "500ms")),
+                duration(values.getOrDefault("lag-timeout", "10s")),
+                ports,
+                split(values.getOrDefault("jvm-args", "-Xmx512m")),
+                split(values.getOrDefault("service-args", "")),
+                env(values.getOrDefault("service-env", "")),
+                Integer.parseInt(values.getOrDefault("kafka-partitions", "6")),
+                duration(values.getOrDefault("startup-timeout", "5m")),
+                Path.of(values.getOrDefault("out", "target/load-test/report.json")));
+    }
+
+    int port(String service) {
+        return ports.get(service);
+    }
+
+    /**
+     * The repository root, whether the harness runs from it or from the {@code load-test} directory.
+     */
+    private static String defaultRoot() {
+        return Files.isDirectory(Path.of("book-msvc")) ? "." : "..";
+    }
+
+    private static Map<Workload.Operation, Integer> mix(String value) {
+        Map<Workload.Operation, Integer> mix = new LinkedHashMap<>();
+        for (String entry : value.split(",")) {
+            String[] weight = entry.trim().split("=");
+            mix.put(Workload.Operation.of(weight[0].trim()), Integer.parseInt(weight[1].trim()));
+        }
+        return mix;
+    }
+
+    private static Map<String, String> env(String value) {
+        Map<String, String> env = new LinkedHashMap<>();
+        for (String entry : split(value)) {
+            int separator = entry.indexOf('=');
+            env.put(entry.substring(0, separator), entry.substring(separator + 1));
+        }
+        return env;
+    }
+
+    private static List<String> split(String value) {
+        return value.isBlank() ? List.of() : Arrays.asList(value.trim().split("\\s+"));
+    }
+
+    static Duration duration(String value) {
+        String upper = value.trim().toUpperCase(Locale.ROOT);
+        return upper.endsWith("MS")
+                ? Duration.ofMillis(Long.parseLong(upper.substring(0, upper.length() - 2)))
+                : Duration.parse("PT" + upper);
+    }
+}
@@ -0,0 +1,54 @@
+package com.pavila.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Latencies of one writer, kept exactly so percentiles need no histogram approximation. Not thread-safe:
+ * each client records into its own instance and the instances are merged once the run is over.
+ */
+final class LatencyRecorder {
+
+    private long[] nanos = new long[256];
+    private int count;
+
+    void record(long latencyNanos) {
+        if (count == nanos.length) {
+            nanos = Arrays.copyOf(nanos, count * 2);
+        }
+        nanos[count++] = latencyNanos;
+    }
+
+    void addAll(LatencyRecorder other) {
+        if (count + other.count > nanos.length) {
+            nanos = Arrays.copyOf(nanos, Math.max(nanos.length * 2, count + other.count));
+        }
+        System.arraycopy(other.nanos, 0, nanos, count, other.count);
+        count += other.count;
+    }
+
+    int count() {
+        return count;
+    }
+
+    Summary summarize() {
+        long[] sorted = Arrays.copyOf(nanos, count);
+        Arrays.sort(sorted);
+        double mean = count == 0 ? 0 : Arrays.stream(sorted).average().orElse(0) / 1e6;
+        return new Summary(count, mean, percentile(sorted, 0.5), percentile(sorted, 0.9), percentile(sorted, 0.99),
+                percentile(sorted, 0.999), percentile(sorted, 1.0));
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+    }
+
+    /**
+     * Latency distribution in milliseconds.
+     */
+    record Summary(int count, double meanMs, double p50Ms, double p90Ms, double p99Ms, double p999Ms, double maxMs) {
+    }
+}
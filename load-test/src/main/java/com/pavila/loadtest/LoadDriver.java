@@ -0,0 +1,121 @@
+package com.pavila.loadtest;
+
+import com.pavila.loadtest.Workload.Operation;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Closed-loop load: every client sends a request, waits for its response and sends the next one, so the
+ * number of clients is the number of requests in flight. Clients are callbacks of the non-blocking JDK HTTP
+ * client rather than threads, so thousands of them are cheap.
+ */
+final class LoadDriver {
+
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    private final HttpClient httpClient;
+    private final Workload workload;
+    private final List<String> tokens;
+
+    LoadDriver(HttpClient httpClient, Workload workload, List<String> tokens) {
+        this.httpClient = httpClient;
+        this.workload = workload;
+        this.tokens = tokens;
+    }
+
+    /**
+     * Applies the load for {@code duration} and returns what each operation recorded.
+     */
+    Map<Operation, OperationStats> run(Duration duration) throws InterruptedException {
+        long end = System.nanoTime() + duration.toNanos();
+        CountDownLatch done = new CountDownLatch(tokens.size());
+        Client[] clients = new Client[tokens.size()];
+        for (int i = 0; i < clients.length; i++) {
+            clients[i] = new Client(tokens.get(i), new Random(i), end, done);
+            clients[i].next();
+        }
+        done.await();
+
+        Map<Operation, OperationStats> merged = new EnumMap<>(Operation.class);
+        for (Client client : clients) {
+            client.stats.forEach((operation, stats) ->
+                    merged.computeIfAbsent(operation, key -> new OperationStats()).addAll(stats));
+        }
+        return merged;
+    }
+
+    /**
+     * Outcome of one operation: latencies of the successful requests, and the requests that failed or were
+     * rejected by the rate limiter.
+     */
+    static final class OperationStats {
+
+        final LatencyRecorder latencies = new LatencyRecorder();
+        int errors;
+        int throttled;
+        String firstError;
+
+        void addAll(OperationStats other) {
+            latencies.addAll(other.latencies);
+            errors += other.errors;
+            throttled += other.throttled;
+            firstError = firstError != null ? firstError : other.firstError;
+        }
+    }
+
+    /**
+     * One simulated user. Its requests never overlap, so its stats need no synchronization.
+     */
+    private final class Client {
+
+        private final String token;
+        private final Random random;
+        private final long end;
+        private final CountDownLatch done;
+        private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+
+        Client(String token, Random random, long end, CountDownLatch done) {
+            this.token = token;
+            this.random = random;
+            this.end = end;
+            this.done = done;
+        }
+
+        void next() {
+            long sent = System.nanoTime();
+            if (sent >= end) {
+                done.countDown();
+                return;
+            }
+            Operation operation = workload.next(random);
+            HttpRequest request = workload.request(operation, random, token);
+            httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        record(operation, response, error, System.nanoTime() - sent);
+                        next();
+                    });
+        }
+
+        private void record(Operation operation, HttpResponse<Void> response, Throwable error, long latencyNanos) {
+            OperationStats operationStats = stats.computeIfAbsent(operation, key -> new OperationStats());
+            if (error == null && response.statusCode() < 400) {
+                operationStats.latencies.record(latencyNanos);
+            } else if (error == null && response.statusCode() == TOO_MANY_REQUESTS) {
+                operationStats.throttled++;
+            } else {
+                operationStats.errors++;
+                if (operationStats.firstError == null) {
+                    operationStats.firstError = error != null ? String.valueOf(error) : "HTTP " + response.statusCode();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.pavila.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * End-to-end load test: starts the stack locally, seeds it, applies a closed-loop mix of reads and writes
+ * through the gateway while probing how long review events take to reach book-msvc, and reports throughput,
+ * latency percentiles, errors and propagation lag.
+ * <p>
+ * The services must have been packaged first ({@code mvn package} in each module); from {@code load-test}:
+ * <pre>
+ * mvn exec:java -Dexec.args="--clients 200 --warmup 15s --duration 60s"
+ * mvn exec:java -Dexec.args="--clients 1000 --service-env VIRTUAL_THREADS_ENABLED=true --out target/load-test/virtual.json"
+ * </pre>
+ * See {@link HarnessOptions} for every option.
+ */
+public final class LoadTestHarness {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadTestHarness.class);
+    private static final Duration TOKEN_TTL = Duration.ofHours(8);
+    private static final String PROBE_SUBJECT = "load-probe";
+
+    private LoadTestHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        HarnessOptions options = HarnessOptions.parse(args);
+        ExecutorService httpExecutor = Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()));
+        HttpClient httpClient = HttpClient.newBuilder()
+                .executor(httpExecutor)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        try {
+            runStack(options, httpClient);
+        } finally {
+            httpExecutor.shutdownNow();
+        }
+    }
+
+    private static void runStack(HarnessOptions options, HttpClient httpClient) throws Exception {
+        LocalStack stack = LocalStack.start(options, httpClient);
+        Thread shutdownHook = new Thread(() -> {
+            try {
+                stack.close();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "load-test-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+
+        try {
+            Report report = run(options, stack, httpClient);
+            report.print();
+            report.write(options.out());
+        } finally {
+            stack.close();
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        }
+    }
+
+    private static Report run(HarnessOptions options, LocalStack stack, HttpClient httpClient) throws Exception {
+        // One token per client: the gateway rate limits per subject
+        List<String> tokens = new ArrayList<>(options.clients());
+        for (int i = 0; i < options.clients(); i++) {
+            tokens.add(stack.issuer().token("load-client-" + i, TOKEN_TTL));
+        }
+        String probeToken = stack.issuer().token(PROBE_SUBJECT, TOKEN_TTL);
+
+        Workload workload = Workload.prepare(httpClient, stack.gateway(), probeToken, options.seedBooks(), options.mix());
+        LoadDriver driver = new LoadDriver(httpClient, workload, tokens);
+
+        logger.info("Warming up with {} clients for {}", options.clients(), options.warmup());
+        driver.run(options.warmup());
+
+        PropagationLagProbe probe = new PropagationLagProbe(httpClient, workload, stack.books(), probeToken,
+                options.lagInterval(), options.lagTimeout());
+        Thread probeThread = new Thread(probe, "propagation-probe");
+        String startedAt = Instant.now().toString();
+        logger.info("Measuring with {} clients for {}", options.clients(), options.duration());
+        probeThread.start();
+        Map<Workload.Operation, LoadDriver.OperationStats> stats = driver.run(options.duration());
+        probe.stop();
+        probeThread.join(options.lagTimeout().plus(options.lagInterval()).toMillis() + 1000);
+        probeThread.interrupt();
+        probeThread.join();
+
+        return Report.of(startedAt, options, stats, probe.result());
+    }
+}
@@ -0,0 +1,151 @@
+package com.pavila.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gateway, books, reviews and message relay running as local processes against stand-ins: an embedded
+ * Kafka broker instead of the cluster, {@link LocalJwtIssuer} instead of Keycloak, and static instances
+ * of the simple discovery client instead of Eureka and the config server.
+ */
+final class LocalStack implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalStack.class);
+
+    private static final String[] TOPICS = {"book-events-input", "book-events-output",
+            "review-events-input", "review-events-output"};
+
+    private final HarnessOptions options;
+    private final EmbeddedKafkaKraftBroker kafka;
+    private final LocalJwtIssuer issuer;
+    private final List<ServiceProcess> services = new ArrayList<>();
+    private boolean closed;
+
+    private LocalStack(HarnessOptions options, EmbeddedKafkaKraftBroker kafka, LocalJwtIssuer issuer) {
+        this.options = options;
+        this.kafka = kafka;
+        this.issuer = issuer;
+    }
+
+    static LocalStack start(HarnessOptions options, HttpClient httpClient) throws Exception {
+        EmbeddedKafkaKraftBroker kafka = new EmbeddedKafkaKraftBroker(1, options.kafkaPartitions(), TOPICS);
+        kafka.afterPropertiesSet();
+        logger.info("Embedded Kafka at {}", kafka.getBrokersAsString());
+
+        LocalStack stack = new LocalStack(options, kafka, new LocalJwtIssuer());
+        try {
+            stack.startServices(httpClient);
+        } catch (Exception e) {
+            stack.close();
+            throw e;
+        }
+        return stack;
+    }
+
+    LocalJwtIssuer issuer() {
+        return issuer;
+    }
+
+    URI gateway() {
+        return URI.create(local(ServiceProcess.GATEWAY));
+    }
+
+    URI books() {
+        return URI.create(local(ServiceProcess.BOOKS));
+    }
+
+    private void startServices(HttpClient httpClient) throws Exception {
+        Path logDir = options.out().toAbsolutePath().getParent().resolve("logs");
+        Map<String, URI> readiness = new LinkedHashMap<>();
+        // The message relay has no web server
+        readiness.put(ServiceProcess.MESSAGE, null);
+        readiness.put(ServiceProcess.REVIEWS, URI.create(local(ServiceProcess.REVIEWS) + "/actuator/health/readiness"));
+        readiness.put(ServiceProcess.BOOKS, URI.create(local(ServiceProcess.BOOKS) + "/actuator/health/readiness"));
+        // Public route of the gateway, answered only once routing to book-msvc works
+        readiness.put(ServiceProcess.GATEWAY, URI.create(local(ServiceProcess.GATEWAY) + "/library/books/api/info"));
+
+        for (Map.Entry<String, URI> service : readiness.entrySet()) {
+            services.add(ServiceProcess.start(service.getKey(), options.root(), options.jvmArgs(),
+                    properties(service.getKey()), options.serviceEnv(), service.getValue(), logDir));
+        }
+        logger.info("Started {}, logs in {}", readiness.keySet(), logDir);
+
+        long deadline = System.nanoTime() + options.startupTimeout().toNanos();
+        for (ServiceProcess service : services) {
+            service.awaitReady(httpClient, deadline);
+            logger.info("{} ready", service.name());
+        }
+    }
+
+    /**
+     * Command line of a service. Values given with {@code --service-args} replace the defaults.
+     */
+    private List<String> properties(String service) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        if (options.ports().containsKey(service)) {
+            properties.put("server.port", String.valueOf(options.port(service)));
+        }
+        properties.put("spring.cloud.config.enabled", "false");
+        properties.put("spring.config.import", "");
+        properties.put("eureka.client.enabled", "false");
+        properties.put("spring.cloud.stream.kafka.binder.brokers", kafka.getBrokersAsString());
+        properties.put("spring.cloud.stream.kafka.binder.min-partition-count", String.valueOf(options.kafkaPartitions()));
+        properties.put("build.version", "load-test");
+        properties.put("books.message", "load-test");
+        properties.put("spring.jpa.show-sql", "false");
+        properties.put("logging.level.org.hibernate.SQL", "WARN");
+
+        switch (service) {
+            case ServiceProcess.BOOKS ->
+                    properties.put("spring.cloud.discovery.client.simple.instances.reviews[0].uri",
+                            local(ServiceProcess.REVIEWS));
+            case ServiceProcess.REVIEWS ->
+                    properties.put("spring.cloud.discovery.client.simple.instances.books[0].uri",
+                            local(ServiceProcess.BOOKS));
+            case ServiceProcess.GATEWAY -> {
+                properties.put("spring.cloud.discovery.client.simple.instances.BOOKS[0].uri", local(ServiceProcess.BOOKS));
+                properties.put("spring.cloud.discovery.client.simple.instances.REVIEWS[0].uri", local(ServiceProcess.REVIEWS));
+                properties.put("spring.security.oauth2.resourceserver.jwt.jwk-set-uri", issuer.jwkSetUri());
+            }
+            default -> {
+            }
+        }
+
+        for (String arg : options.serviceArgs()) {
+            String property = arg.startsWith("--") ? arg.substring(2) : arg;
+            int separator = property.indexOf('=');
+            properties.put(property.substring(0, separator), property.substring(separator + 1));
+        }
+        return properties.entrySet().stream()
+                .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                .toList();
+    }
+
+    private String local(String service) {
+        return "http://localhost:" + options.port(service);
+    }
+
+    @Override
+    public synchronized void close() throws InterruptedException {
+        // Also called from the shutdown hook
+        if (closed) {
+            return;
+        }
+        closed = true;
+        // Gateway first, message relay last, so in-flight events can still be relayed
+        for (int i = services.size() - 1; i >= 0; i--) {
+            services.get(i).close();
+        }
+        issuer.close();
+        kafka.destroy();
+    }
+}
@@ -0,0 +1,109 @@
+package com.pavila.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Measures how long a review takes to reach book-msvc: review-msvc outbox, Kafka, message relay, Kafka and
+ * the book-msvc consumer. Each probe creates a review on a book no other client writes to and polls book-msvc
+ * directly, bypassing the gateway cache, until the book's review count includes it. The lag runs from
+ * review-msvc acknowledging the review to book-msvc returning the new count.
+ */
+final class PropagationLagProbe implements Runnable {
+
+    private static final Logger logger = LoggerFactory.getLogger(PropagationLagProbe.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(5);
+
+    private final HttpClient httpClient;
+    private final Workload workload;
+    private final URI bookUri;
+    private final String token;
+    private final Duration interval;
+    private final Duration timeout;
+    private final LatencyRecorder lags = new LatencyRecorder();
+    private volatile boolean running = true;
+    private int lost;
+    private int failed;
+
+    PropagationLagProbe(HttpClient httpClient, Workload workload, URI books, String token, Duration interval,
+                        Duration timeout) {
+        this.httpClient = httpClient;
+        this.workload = workload;
+        this.bookUri = books.resolve("/api/books/" + workload.probeBookId());
+        this.token = token;
+        this.interval = interval;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            try {
+                probe();
+                Thread.sleep(interval.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException e) {
+                failed++;
+                logger.debug("Propagation probe failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void probe() throws IOException, InterruptedException {
+        long reviewCount = reviewCount();
+        HttpResponse<Void> created = httpClient.send(workload.reviewRequest(workload.probeBookId(), 5, token),
+                HttpResponse.BodyHandlers.discarding());
+        if (created.statusCode() != 201) {
+            failed++;
+            return;
+        }
+        awaitReviewCount(reviewCount + 1, System.nanoTime());
+    }
+
+    private void awaitReviewCount(long expected, long acknowledgedAt) throws IOException, InterruptedException {
+        long deadline = acknowledgedAt + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            long seen = reviewCount();
+            if (seen >= expected) {
+                lags.record(System.nanoTime() - acknowledgedAt);
+                return;
+            }
+            Thread.sleep(POLL_INTERVAL.toMillis());
+        }
+        lost++;
+    }
+
+    private long reviewCount() throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(bookUri).timeout(timeout).GET().build();
+        JsonNode details = objectMapper.readTree(httpClient.send(request, HttpResponse.BodyHandlers.ofString()).body());
+        return details.path("book").path("reviewCount").asLong();
+    }
+
+    void stop() {
+        running = false;
+    }
+
+    Result result() {
+        return new Result(lags.summarize(), lost, failed);
+    }
+
+    /**
+     * @param lag    lag of the reviews that arrived
+     * @param lost   reviews not seen by book-msvc within the timeout
+     * @param failed probes that could not create a review or read the book
+     */
+    record Result(LatencyRecorder.Summary lag, int lost, int failed) {
+    }
+}
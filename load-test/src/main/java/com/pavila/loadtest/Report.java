@@ -0,0 +1,84 @@
+package com.pavila.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.pavila.loadtest.LoadDriver.OperationStats;
+import com.pavila.loadtest.Workload.Operation;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Result of a run: throughput, latency percentiles and errors of each operation and of all of them, and the
+ * event propagation lag. Printed as a table and written as JSON so runs can be compared.
+ */
+record Report(String startedAt, int clients, double durationSeconds, Map<String, Integer> mix,
+              List<String> serviceArgs, Map<String, String> serviceEnv, List<OperationResult> operations,
+              OperationResult total, PropagationLagProbe.Result propagationLag) {
+
+    static final String TOTAL = "total";
+
+    static Report of(String startedAt, HarnessOptions options, Map<Operation, OperationStats> stats,
+                     PropagationLagProbe.Result propagationLag) {
+        double seconds = options.duration().toMillis() / 1000.0;
+        List<OperationResult> operations = new ArrayList<>();
+        OperationStats total = new OperationStats();
+        stats.forEach((operation, operationStats) -> {
+            operations.add(OperationResult.of(operation.id(), operationStats, seconds));
+            total.addAll(operationStats);
+        });
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        options.mix().forEach((operation, weight) -> mix.put(operation.id(), weight));
+        return new Report(startedAt, options.clients(), seconds, mix, options.serviceArgs(),
+                options.serviceEnv(), operations, OperationResult.of(TOTAL, total, seconds), propagationLag);
+    }
+
+    void print() {
+        System.out.printf("%n%d clients, %.0f s%s%n", clients, durationSeconds,
+                serviceEnv.isEmpty() ? "" : ", " + serviceEnv);
+        System.out.printf("%-14s %10s %10s %8s %9s %9s %9s %9s %9s %9s%n", "operation", "requests", "req/s",
+                "errors", "throttled", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        List<OperationResult> rows = new ArrayList<>(operations);
+        rows.add(total);
+        for (OperationResult row : rows) {
+            LatencyRecorder.Summary latency = row.latency();
+            System.out.printf(Locale.ROOT, "%-14s %10d %10.1f %8d %9d %9.2f %9.2f %9.2f %9.2f %9.2f%n", row.operation(),
+                    latency.count(), row.throughput(), row.errors(), row.throttled(), latency.p50Ms(), latency.p90Ms(),
+                    latency.p99Ms(), latency.p999Ms(), latency.maxMs());
+        }
+        for (OperationResult row : operations) {
+            if (row.firstError() != null) {
+                System.out.printf("first %s error: %s%n", row.operation(), row.firstError());
+            }
+        }
+        LatencyRecorder.Summary lag = propagationLag.lag();
+        System.out.printf(Locale.ROOT, "%nreview -> book propagation: %d events, p50 %.1f ms, p99 %.1f ms, max %.1f ms, "
+                        + "%d lost, %d failed%n", lag.count(), lag.p50Ms(), lag.p99Ms(), lag.maxMs(),
+                propagationLag.lost(), propagationLag.failed());
+    }
+
+    void write(Path out) throws IOException {
+        Path parent = out.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(out.toFile(), this);
+        System.out.println("Report written to " + out.toAbsolutePath());
+    }
+
+    /**
+     * Only successful requests count towards throughput and latency.
+     */
+    record OperationResult(String operation, double throughput, int errors, int throttled, String firstError,
+                           LatencyRecorder.Summary latency) {
+
+        static OperationResult of(String operation, OperationStats stats, double seconds) {
+            return new OperationResult(operation, stats.latencies.count() / seconds, stats.errors, stats.throttled,
+                    stats.firstError, stats.latencies.summarize());
+        }
+    }
+}
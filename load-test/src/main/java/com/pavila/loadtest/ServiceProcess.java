@@ -0,0 +1,118 @@
+package com.pavila.loadtest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * One service started from its executable jar as a child process, with its output in {@code <name>.log}.
+ * Services without a web server have no readiness URI and are ready once Spring Boot logs their startup.
+ */
+final class ServiceProcess implements AutoCloseable {
+
+    static final String GATEWAY = "gateway-server";
+    static final String BOOKS = "book-msvc";
+    static final String REVIEWS = "review-msvc";
+    static final String MESSAGE = "message";
+
+    private static final Duration POLL_INTERVAL = Duration.ofSeconds(1);
+    private static final String STARTED = " Started ";
+
+    private final String name;
+    private final Process process;
+    private final URI readinessUri;
+    private final Path log;
+
+    private ServiceProcess(String name, Process process, URI readinessUri, Path log) {
+        this.name = name;
+        this.process = process;
+        this.readinessUri = readinessUri;
+        this.log = log;
+    }
+
+    static ServiceProcess start(String name, Path root, List<String> jvmArgs, List<String> properties,
+                                Map<String, String> env, URI readinessUri, Path logDir) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        command.add("-jar");
+        command.add(executableJar(root.resolve(name)).toString());
+        command.addAll(properties);
+
+        Files.createDirectories(logDir);
+        Path log = logDir.resolve(name + ".log");
+        ProcessBuilder builder = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile());
+        builder.environment().putAll(env);
+        return new ServiceProcess(name, builder.start(), readinessUri, log);
+    }
+
+    /**
+     * Waits until the readiness URI answers 200, or until the log reports the startup when there is none.
+     */
+    void awaitReady(HttpClient httpClient, long deadlineNanos) throws InterruptedException {
+        while (System.nanoTime() < deadlineNanos) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException(name + " exited with status " + process.exitValue() + ", see " + log);
+            }
+            try {
+                if (readinessUri == null ? logContains(STARTED) : isReady(httpClient)) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(POLL_INTERVAL.toMillis());
+        }
+        throw new IllegalStateException(name + " not ready"
+                + (readinessUri == null ? "" : " at " + readinessUri) + ", see " + log);
+    }
+
+    private boolean isReady(HttpClient httpClient) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(readinessUri).timeout(POLL_INTERVAL.multipliedBy(5)).GET().build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+    }
+
+    private boolean logContains(String text) throws IOException {
+        try (Stream<String> lines = Files.lines(log)) {
+            return lines.anyMatch(line -> line.contains(text));
+        }
+    }
+
+    String name() {
+        return name;
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+    }
+
+    private static Path executableJar(Path module) {
+        Path target = module.resolve("target");
+        try (Stream<Path> files = Files.exists(target) ? Files.list(target) : Stream.empty()) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".jar"))
+                    .filter(file -> !file.getFileName().toString().endsWith("-plain.jar"))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException(
+                            "No executable jar in " + target + ", run mvn package in " + module.getFileName()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
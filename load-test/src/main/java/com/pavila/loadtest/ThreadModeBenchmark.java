@@ -0,0 +1,211 @@
+package com.pavila.loadtest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+
+/**
+ * Closed-loop HTTP benchmark used to compare the platform-thread and virtual-thread modes of book-msvc and
+ * review-msvc. Each client sends a request, waits for the response and sends the next one, so {@code --clients}
+ * is the number of requests in flight. Clients are driven by the non-blocking JDK HTTP client, so thousands of
+ * them need only a handful of threads here.
+ * <p>
+ * Run with the JDK source launcher, once per mode against the same URL:
+ * <pre>
+ * java load-test/src/main/java/com/pavila/loadtest/ThreadModeBenchmark.java --url http://localhost:8080/api/books/1 --clients 1000 \
+ *      --warmup 15s --duration 60s --label platform --out thread-modes.csv
+ * </pre>
+ * Prints throughput and latency percentiles, and appends them as one CSV row to {@code --out}.
+ */
+public class ThreadModeBenchmark {
+
+    private static final String CSV_HEADER = "label,url,clients,duration_s,requests,errors,throughput_rps,"
+            + "p50_ms,p90_ms,p99_ms,p999_ms,max_ms";
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        URI url = URI.create(required(options, "url"));
+        int clients = Integer.parseInt(options.getOrDefault("clients", "1000"));
+        Duration warmup = duration(options.getOrDefault("warmup", "10s"));
+        Duration duration = duration(options.getOrDefault("duration", "30s"));
+        Duration timeout = duration(options.getOrDefault("timeout", "10s"));
+        String label = options.getOrDefault("label", "run");
+
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .executor(Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors()))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(url)
+                .timeout(timeout)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+
+        System.out.printf(Locale.ROOT, "%s: %d clients against %s, warmup %ds, measuring %ds%n",
+                label, clients, url, warmup.toSeconds(), duration.toSeconds());
+        run(httpClient, request, clients, warmup);
+        Result result = run(httpClient, request, clients, duration);
+
+        System.out.println(result.summary());
+        if (options.containsKey("out")) {
+            append(Path.of(options.get("out")), result.csv(label, url, clients));
+        }
+        System.exit(0);
+    }
+
+    private static Result run(HttpClient httpClient, HttpRequest request, int clients, Duration duration)
+            throws InterruptedException {
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        Client[] running = new Client[clients];
+        CountDownLatch done = new CountDownLatch(clients);
+        for (int i = 0; i < clients; i++) {
+            running[i] = new Client(httpClient, request, end, done);
+            running[i].next();
+        }
+        done.await();
+        long elapsed = System.nanoTime() - start;
+
+        int total = Arrays.stream(running).mapToInt(client -> client.count).sum();
+        long[] latencies = new long[total];
+        int errors = 0;
+        String firstError = null;
+        int offset = 0;
+        for (Client client : running) {
+            System.arraycopy(client.latencies, 0, latencies, offset, client.count);
+            offset += client.count;
+            errors += client.errors;
+            firstError = firstError != null ? firstError : client.firstError;
+        }
+        Arrays.sort(latencies);
+        return new Result(latencies, errors, firstError, elapsed);
+    }
+
+    /**
+     * One simulated user. Its requests never overlap, so the latencies it records need no synchronization.
+     */
+    private static final class Client {
+
+        private final HttpClient httpClient;
+        private final HttpRequest request;
+        private final long end;
+        private final CountDownLatch done;
+        private long[] latencies = new long[1024];
+        private int count;
+        private int errors;
+        private String firstError;
+
+        Client(HttpClient httpClient, HttpRequest request, long end, CountDownLatch done) {
+            this.httpClient = httpClient;
+            this.request = request;
+            this.end = end;
+            this.done = done;
+        }
+
+        void next() {
+            long sent = System.nanoTime();
+            if (sent >= end) {
+                done.countDown();
+                return;
+            }
+            CompletableFuture<HttpResponse<Void>> response =
+                    httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding());
+            response.whenComplete((result, error) -> {
+                if (error != null || result.statusCode() >= 400) {
+                    errors++;
+                    if (firstError == null) {
+                        firstError = error != null ? String.valueOf(error) : "HTTP " + result.statusCode();
+                    }
+                } else {
+                    record(System.nanoTime() - sent);
+                }
+                next();
+            });
+        }
+
+        private void record(long nanos) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+        }
+    }
+
+    private record Result(long[] latencies, int errors, String firstError, long elapsedNanos) {
+
+        double throughput() {
+            return latencies.length / (elapsedNanos / 1e9);
+        }
+
+        double percentile(double p) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(p * latencies.length) - 1;
+            return latencies[Math.max(0, Math.min(index, latencies.length - 1))] / 1e6;
+        }
+
+        String summary() {
+            String summary = String.format(Locale.ROOT,
+                    "requests=%d errors=%d throughput=%.1f req/s p50=%.2f ms p90=%.2f ms p99=%.2f ms p99.9=%.2f ms max=%.2f ms",
+                    latencies.length, errors, throughput(), percentile(0.5), percentile(0.9), percentile(0.99),
+                    percentile(0.999), percentile(1.0));
+            return firstError == null ? summary : summary + System.lineSeparator() + "first error: " + firstError;
+        }
+
+        String csv(String label, URI url, int clients) {
+            return String.format(Locale.ROOT, "%s,%s,%d,%.1f,%d,%d,%.1f,%.2f,%.2f,%.2f,%.2f,%.2f",
+                    label, url, clients, elapsedNanos / 1e9, latencies.length, errors, throughput(),
+                    percentile(0.5), percentile(0.9), percentile(0.99), percentile(0.999), percentile(1.0));
+        }
+    }
+
+    private static void append(Path out, String row) {
+        try {
+            if (Files.notExists(out)) {
+                Files.writeString(out, CSV_HEADER + System.lineSeparator());
+            }
+            Files.writeString(out, row + System.lineSeparator(), StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length - 1; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Expected an option, got " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        return options;
+    }
+
+    private static String required(Map<String, String> options, String name) {
+        String value = options.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing --" + name);
+        }
+        return value;
+    }
+
+    private static Duration duration(String value) {
+        return Duration.parse("PT" + value.toUpperCase(Locale.ROOT));
+    }
+}
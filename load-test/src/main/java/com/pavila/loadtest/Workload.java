@@ -0,0 +1,188 @@
+package com.pavila.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The requests the simulated users send through the gateway, picked at random by weight, and the books
+ * they work on.
+ */
+final class Workload {
+
+    private static final Logger logger = LoggerFactory.getLogger(Workload.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+    private static final int SEED_ATTEMPTS = 15;
+    private static final Duration SEED_RETRY_DELAY = Duration.ofSeconds(2);
+    private static final int ID_PAGE_SIZE = 1000;
+
+    enum Operation {
+        BOOK_DETAILS("book-details"),
+        BOOK_PAGE("book-page"),
+        REVIEWS_PAGE("reviews-page"),
+        REVIEW_CREATE("review-create"),
+        BOOK_CREATE("book-create");
+
+        private final String id;
+
+        Operation(String id) {
+            this.id = id;
+        }
+
+        String id() {
+            return id;
+        }
+
+        static Operation of(String id) {
+            return Arrays.stream(values())
+                    .filter(operation -> operation.id.equals(id))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown operation " + id));
+        }
+    }
+
+    private final URI gateway;
+    private final List<Long> bookIds;
+    private final long probeBookId;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final AtomicLong isbnSequence = new AtomicLong(System.currentTimeMillis() % 1_000_000_000L * 10);
+
+    private Workload(URI gateway, List<Long> bookIds, long probeBookId, Map<Operation, Integer> mix) {
+        this.gateway = gateway;
+        this.bookIds = bookIds;
+        this.probeBookId = probeBookId;
+        this.operations = mix.keySet().toArray(Operation[]::new);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += mix.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("The operation mix has no weight");
+        }
+    }
+
+    /**
+     * Creates {@code seedBooks} books, plus one reserved for the propagation probe, and loads their ids.
+     * Books are created one at a time and retried while the gateway answers 5xx: the first requests reach
+     * services that are still cold and may exceed the route timeouts.
+     */
+    static Workload prepare(HttpClient httpClient, URI gateway, String token, int seedBooks,
+                            Map<Operation, Integer> mix) throws IOException, InterruptedException {
+        Workload workload = new Workload(gateway, List.of(), 0, mix);
+        Random random = new Random(42L);
+        for (int i = 0; i <= seedBooks; i++) {
+            workload.seedBook(httpClient, random, token);
+        }
+
+        // Ids are ascending and the probe book was created last
+        List<Long> ids = new ArrayList<>();
+        Long[] page;
+        do {
+            long after = ids.isEmpty() ? 0 : ids.get(ids.size() - 1);
+            HttpRequest idsRequest = authorized(gateway.resolve("/library/books/api/books/ids?after=" + after + "&sz="
+                    + ID_PAGE_SIZE), token).GET().build();
+            page = objectMapper.readValue(httpClient.send(idsRequest, HttpResponse.BodyHandlers.ofString()).body(),
+                    Long[].class);
+            ids.addAll(Arrays.asList(page));
+        } while (page.length == ID_PAGE_SIZE);
+        if (ids.size() < 2) {
+            throw new IllegalStateException("Expected " + (seedBooks + 1) + " books, found " + ids.size());
+        }
+        long probeBookId = ids.get(ids.size() - 1);
+        logger.info("{} books, book {} is reserved for the propagation probe", ids.size() - 1, probeBookId);
+        return new Workload(gateway, List.copyOf(ids.subList(0, ids.size() - 1)), probeBookId, mix);
+    }
+
+    private void seedBook(HttpClient httpClient, Random random, String token) throws IOException, InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            HttpResponse<String> response = httpClient.send(request(Operation.BOOK_CREATE, random, token),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() == 201) {
+                return;
+            }
+            if (response.statusCode() < 500 || attempt == SEED_ATTEMPTS) {
+                throw new IllegalStateException("Could not seed a book: HTTP " + response.statusCode() + " "
+                        + response.body());
+            }
+            logger.info("Seeding got HTTP {}, retrying", response.statusCode());
+            Thread.sleep(SEED_RETRY_DELAY.toMillis());
+        }
+    }
+
+    long probeBookId() {
+        return probeBookId;
+    }
+
+    Operation next(Random random) {
+        int pick = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (pick < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        throw new IllegalStateException("Unreachable");
+    }
+
+    HttpRequest request(Operation operation, Random random, String token) {
+        return switch (operation) {
+            case BOOK_DETAILS -> authorized(gateway.resolve("/library/books/api/books/" + randomBook(random)), token)
+                    .GET().build();
+            case BOOK_PAGE -> authorized(gateway.resolve("/library/books/api/books?page=" + random.nextInt(10) + "&size=20"), token)
+                    .GET().build();
+            case REVIEWS_PAGE -> authorized(gateway.resolve("/library/reviews/api/reviews/" + randomBook(random)), token)
+                    .GET().build();
+            case REVIEW_CREATE -> reviewRequest(randomBook(random), 1 + random.nextInt(5), token);
+            case BOOK_CREATE -> authorized(gateway.resolve("/library/books/api/books"), token)
+                    .header("Content-Type", "application/json")
+                    .POST(json(Map.of(
+                            "title", "Load test book " + random.nextInt(1_000_000),
+                            "author", "Load Test",
+                            "publicationYear", String.valueOf(1950 + random.nextInt(75)),
+                            "isbn", String.valueOf(9_780_000_000_000L + isbnSequence.incrementAndGet() % 10_000_000_000L))))
+                    .build();
+        };
+    }
+
+    HttpRequest reviewRequest(long bookId, int rating, String token) {
+        return authorized(gateway.resolve("/library/reviews/api/reviews"), token)
+                .header("Content-Type", "application/json")
+                .POST(json(Map.of("bookId", bookId, "rating", rating, "comment", "Load test review")))
+                .build();
+    }
+
+    private long randomBook(Random random) {
+        return bookIds.get(random.nextInt(bookIds.size()));
+    }
+
+    static HttpRequest.Builder authorized(URI uri, String token) {
+        return HttpRequest.newBuilder(uri)
+                .timeout(TIMEOUT)
+                .header("Accept", "application/json")
+                .header("Authorization", "Bearer " + token);
+    }
+
+    private static HttpRequest.BodyPublisher json(Map<String, Object> body) {
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.pavila.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.listener.CommonErrorHandler;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.ExponentialBackOff;
+
+@Configuration
+public class RelayErrorHandlerConfig {
+
+    /**
+     * Error handler of the relay bindings, bound through {@code common-error-handler-bean-name}. A batch fails
+     * only when forwarding it failed, typically because the broker is unavailable, so it is redelivered with
+     * exponential backoff and never skipped: its offsets stay uncommitted until every event was forwarded.
+     */
+    @Bean
+    public CommonErrorHandler relayErrorHandler(@Value("${message.relay.retry.min-backoff-ms:1000}") long minBackoffMs,
+                                                @Value("${message.relay.retry.max-backoff-ms:30000}") long maxBackoffMs) {
+        ExponentialBackOff backOff = new ExponentialBackOff(minBackoffMs, ExponentialBackOff.DEFAULT_MULTIPLIER);
+        backOff.setMaxInterval(maxBackoffMs);
+        return new DefaultErrorHandler(backOff);
+    }
+}
@@ -1,4 +0,0 @@
-package com.pavila.dto;
-
-public record BookEvent(Long bookId, String eventType) {
-}
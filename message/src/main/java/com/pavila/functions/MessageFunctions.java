@@ -1,12 +1,27 @@
 package com.pavila.functions;
 
-import com.pavila.dto.BookEvent;
-import com.pavila.dto.ReviewEvent;
+import com.pavila.events.BookEvent;
+import com.pavila.events.EventCodec;
+import com.pavila.events.EventType;
+import com.pavila.events.ReviewEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 @Configuration
@@ -14,19 +29,83 @@ public class MessageFunctions {
 
     private static final Logger log = LoggerFactory.getLogger(MessageFunctions.class);
 
+    private final MeterRegistry meterRegistry;
+
+    public MessageFunctions(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
     @Bean
-    public Function<ReviewEvent, ReviewEvent> reviewEventPublisher() {
-        return event -> {
-            log.info("Publishing review event '{}' for bookId: {}", event.eventType(), event.bookId());
-            return event;
-        };
+    public Function<Message<List<byte[]>>, List<Message<byte[]>>> reviewEventPublisher() {
+        return relay("review-events", ReviewEvent.class, ReviewEvent::bookId, ReviewEvent::eventType, event ->
+                log.debug("Publishing review event '{}' for bookId: {}", event.eventType(), event.bookId()));
     }
 
     @Bean
-    public Function<BookEvent, BookEvent> bookDeletedEvent(){
-        return event -> {
-            log.info("Publishing book event '{}' for bookId: {}", event.eventType(), event.bookId());
-            return event;
+    public Function<Message<List<byte[]>>, List<Message<byte[]>>> bookDeletedEvent(){
+        return relay("book-events", BookEvent.class, BookEvent::bookId, BookEvent::eventType, event ->
+                log.debug("Publishing book event '{}' for bookId: {}", event.eventType(), event.bookId()));
+    }
+
+    /**
+     * Builds a batch relay over the records of one poll, up to {@code max.poll.records} of the binding.
+     * Each record is decoded only to read its bookId and type, and forwarded with its original payload,
+     * keyed by bookId so per-book ordering holds on the output topic.
+     * <p>
+     * Delivery is at least once: the binder sends the returned messages waiting for the broker to acknowledge
+     * each one ({@code producer.sync}), and the offsets of the batch are committed only after that. A failed send
+     * or a crash redelivers the batch, and the consumers drop the events they already applied by event id.
+     * A record that cannot be decoded is logged, counted in {@code message.relay.failures} and skipped.
+     */
+    private <T> Function<Message<List<byte[]>>, List<Message<byte[]>>> relay(String topic, Class<T> type,
+                                                                             Function<T, Long> bookId,
+                                                                             Function<T, EventType> eventType,
+                                                                             Consumer<T> onEvent) {
+        Meter.MeterProvider<Counter> relayed = Counter.builder("message.relay.messages")
+                .description("Messages relayed by event type; its rate is the relay throughput in messages per second")
+                .tag("topic", topic)
+                .withRegistry(meterRegistry);
+        Timer latency = Timer.builder("message.relay.latency")
+                .description("Time from the event reaching the input topic to being forwarded by the relay")
+                .tag("topic", topic)
+                .register(meterRegistry);
+        DistributionSummary batches = DistributionSummary.builder("message.relay.batch.size")
+                .description("Messages forwarded per relay batch")
+                .tag("topic", topic)
+                .register(meterRegistry);
+        Counter failures = Counter.builder("message.relay.failures")
+                .description("Messages skipped because they could not be decoded")
+                .tag("topic", topic)
+                .register(meterRegistry);
+
+        return batch -> {
+            List<byte[]> payloads = batch.getPayload();
+            // In batch mode the record headers are lists with one entry per record
+            List<?> timestamps = batch.getHeaders().get(KafkaHeaders.RECEIVED_TIMESTAMP, List.class);
+            long now = System.currentTimeMillis();
+            List<Message<byte[]>> forwarded = new ArrayList<>(payloads.size());
+            for (int i = 0; i < payloads.size(); i++) {
+                byte[] payload = payloads.get(i);
+                T event;
+                try {
+                    event = EventCodec.decode(payload, type);
+                } catch (RuntimeException e) {
+                    failures.increment();
+                    log.warn("Skipping message to {} that could not be decoded: {}", topic, e.toString());
+                    continue;
+                }
+                if (timestamps != null && timestamps.get(i) instanceof Long timestamp) {
+                    latency.record(Math.max(0, now - timestamp), TimeUnit.MILLISECONDS);
+                }
+                onEvent.accept(event);
+                forwarded.add(MessageBuilder.withPayload(payload)
+                        .setHeader(KafkaHeaders.KEY, String.valueOf(bookId.apply(event)).getBytes(StandardCharsets.UTF_8))
+                        .build());
+                relayed.withTag("event.type", String.valueOf(eventType.apply(event))).increment();
+            }
+            batches.record(forwarded.size());
+            log.info("Relaying batch of {} events to {}", forwarded.size(), topic);
+            return forwarded;
         };
     }
 }
@@ -0,0 +1,74 @@
+package com.pavila.functions;
+
+import com.pavila.events.EventCodec;
+import com.pavila.events.EventType;
+import com.pavila.events.ReviewEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.stream.binder.test.InputDestination;
+import org.springframework.cloud.stream.binder.test.OutputDestination;
+import org.springframework.cloud.stream.binder.test.TestChannelBinderConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Import(TestChannelBinderConfiguration.class)
+class MessageFunctionsTests {
+
+	private static final String INPUT = "review-events-input";
+	private static final String OUTPUT = "review-events-output";
+
+	@Autowired
+	private InputDestination input;
+
+	@Autowired
+	private OutputDestination output;
+
+	@BeforeEach
+	void clearOutput() {
+		output.clear();
+	}
+
+	@Test
+	void relaysEachEventOfTheBatchKeyedByBookId() {
+		ReviewEvent first = new ReviewEvent(UUID.randomUUID(), 7L, EventType.REVIEW_CREATED, null, 5, 1);
+		ReviewEvent second = new ReviewEvent(UUID.randomUUID(), 9L, EventType.REVIEW_DELETED, 4, null, 2);
+
+		input.send(batch(EventCodec.encode(first), EventCodec.encode(second)), INPUT);
+
+		assertRelayed(first);
+		assertRelayed(second);
+	}
+
+	@Test
+	void skipsAPayloadThatCannotBeDecoded() {
+		ReviewEvent event = new ReviewEvent(UUID.randomUUID(), 8L, EventType.RATING_UPDATE, 3, 4, 0);
+
+		input.send(batch(new byte[]{(byte) 0x7f, 1, 2}, EventCodec.encode(event)), INPUT);
+
+		assertRelayed(event);
+		assertThat(output.receive(100, OUTPUT)).isNull();
+	}
+
+	private void assertRelayed(ReviewEvent event) {
+		Message<byte[]> relayed = output.receive(5000, OUTPUT);
+		assertThat(relayed).isNotNull();
+		assertThat(EventCodec.decode(relayed.getPayload(), ReviewEvent.class)).isEqualTo(event);
+		assertThat(new String((byte[]) relayed.getHeaders().get(KafkaHeaders.KEY), StandardCharsets.UTF_8))
+				.isEqualTo(String.valueOf(event.bookId()));
+	}
+
+	private static Message<List<byte[]>> batch(byte[]... payloads) {
+		return MessageBuilder.withPayload(List.of(payloads)).build();
+	}
+}
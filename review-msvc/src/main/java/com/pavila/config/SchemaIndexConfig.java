@@ -0,0 +1,22 @@
+package com.pavila.config;
+
+import com.pavila.commons.schema.SchemaIndexVerifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+@Configuration
+public class SchemaIndexConfig {
+
+    /**
+     * Keyset listing, rating summary and chunked delete of the reviews of one book.
+     */
+    @Bean
+    public SchemaIndexVerifier reviewsIndexVerifier(DataSource dataSource) {
+        return new SchemaIndexVerifier(dataSource, "reviews", Map.of(
+                "idx_reviews_book_id_id_rating", List.of("book_id", "id", "rating")));
+    }
+}
@@ -5,9 +5,8 @@ public class ReviewConstants {
     public static final String  MESSAGE_201 = "Review created successfully";
     public static final String  STATUS_200 = "200";
     public static final String MESSAGE_200_UPDATE = "Review updated successfully";
-    public static final String REVIEW_CREATED = "REVIEW_CREATED";
-    public static final String REVIEW_DELETED = "REVIEW_DELETED";
-    public static final String RATING_UPDATE = "RATING_UPDATE";
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
 
 
 }
@@ -22,7 +22,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 @Tag(
         name = "CRUD REST APIs for Reviews",
         description = "CRUD REST APIs for managing Reviews: Create, Read, Update and Delete review records"
@@ -65,19 +64,38 @@ public class ReviewController {
 
 
     @Operation(
-            summary = "Get All Reviews by book id REST API",
-            description = "REST API to retrieve all reviews from the Review Management System"
+            summary = "Get Reviews by book id REST API",
+            description = "REST API to retrieve the reviews of a book one page at a time. " +
+                    "Pass the 'next' cursor of a page as 'cursor' to get the following page"
     )
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Reviews retrieved successfully"),
-            @ApiResponse(responseCode = "404", description = "Reviews not found",
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or page size",
                     content = @Content(schema = @Schema(implementation = ErrorResponseDTO.class))),
             @ApiResponse(responseCode = "500", description = "Internal Server Error",
                     content = @Content(schema = @Schema(implementation = ErrorResponseDTO.class)))
     })
     @GetMapping("/reviews/{bookId}")
-    public ResponseEntity<List<ReviewResponseDTO>> findAllReviewsByBookId(@Positive @PathVariable Long bookId){
-        return ResponseEntity.ok(iReviewService.findAllReviewsByBookId(bookId));
+    public ResponseEntity<PaginatedReviewsResponseDTO> findReviewsByBookId(
+            @Positive @PathVariable Long bookId,
+            @RequestParam(required = false) String cursor,
+            @Positive @RequestParam(name = "sz", required = false) Integer size){
+        return ResponseEntity.ok(iReviewService.findReviewsByBookId(bookId, cursor, size));
+    }
+
+
+    @Operation(
+            summary = "Get Review summary by book id REST API",
+            description = "REST API to retrieve the review count, rating sum and average rating of a book"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Review summary retrieved successfully"),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error",
+                    content = @Content(schema = @Schema(implementation = ErrorResponseDTO.class)))
+    })
+    @GetMapping("/reviews/{bookId}/summary")
+    public ResponseEntity<ReviewSummaryDTO> getReviewSummaryByBookId(@Positive @PathVariable Long bookId){
+        return ResponseEntity.ok(iReviewService.getReviewSummaryByBookId(bookId));
     }
 
 
@@ -0,0 +1,44 @@
+package com.pavila.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(
+        name = "PaginatedReviewsResponseDTO",
+        description = "A page of reviews for a book with the cursor to request the next one"
+)
+public class PaginatedReviewsResponseDTO {
+
+    @Schema(
+            description = "Reviews in this page ordered by review id"
+    )
+    private List<ReviewResponseDTO> content;
+
+    @Schema(
+            description = "Maximum number of reviews requested for this page",
+            example = "20"
+    )
+    private int size;
+
+    @Schema(
+            description = "Whether there are more reviews after this page"
+    )
+    private boolean hasNext;
+
+    @Schema(
+            description = "Opaque cursor to pass as 'cursor' to get the next page, null on the last page",
+            example = "MTIz"
+    )
+    private String next;
+}
@@ -0,0 +1,3 @@
+package com.pavila.dto;
+
+public record ReviewBulkDeleteResult(Long bookId, long deletedCount, int chunks, long elapsedMillis) {}
@@ -1,3 +0,0 @@
-package com.pavila.dto;
-
-public record ReviewEvent(Long bookId, String eventType) {}
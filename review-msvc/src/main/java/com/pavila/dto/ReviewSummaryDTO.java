@@ -0,0 +1,44 @@
+package com.pavila.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(
+        name = "ReviewSummaryDTO",
+        description = "Aggregated rating information for all reviews of a book"
+)
+public class ReviewSummaryDTO {
+
+    @Schema(
+            description = "ID of the book the summary belongs to",
+            example = "123"
+    )
+    private Long bookId;
+
+    @Schema(
+            description = "Total number of reviews for the book",
+            example = "25"
+    )
+    private Long reviewCount;
+
+    @Schema(
+            description = "Sum of all ratings for the book",
+            example = "110"
+    )
+    private Long ratingSum;
+
+    @Schema(
+            description = "Average rating (1 to 5) rounded to one decimal",
+            example = "4.4"
+    )
+    private Double averageRating;
+}
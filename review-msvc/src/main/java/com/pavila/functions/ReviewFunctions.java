@@ -1,7 +1,12 @@
 package com.pavila.functions;
 
-import com.pavila.dto.BookEvent;
+import com.pavila.commons.metrics.ConsumerMetrics;
+import com.pavila.dto.ReviewBulkDeleteResult;
+import com.pavila.events.BookEvent;
+import com.pavila.events.EventType;
 import com.pavila.service.IReviewService;
+import com.pavila.service.client.BookExistenceIndex;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -13,12 +18,49 @@ import java.util.function.Consumer;
 public class ReviewFunctions {
 
     @Bean
-    public Consumer<BookEvent> deleteReviewsFromDeletedBook(IReviewService iReviewService) {
+    public Consumer<BookEvent> deleteReviewsFromDeletedBook(IReviewService iReviewService, MeterRegistry meterRegistry) {
+        ConsumerMetrics metrics = new ConsumerMetrics(meterRegistry, "reviews", "deleteReviewsFromDeletedBook-in-0");
+
         return event -> {
             Long bookId = event.bookId();
-            String eventType = event.eventType();
+            EventType eventType = event.eventType();
+            if (eventType != EventType.BOOK_DELETED) {
+                metrics.consumed(eventType);
+                return;
+            }
             log.info("Received review event '{}' for bookId: {}", eventType, bookId);
-            iReviewService.deleteAllByBookId(bookId);
+            metrics.handle(eventType, () -> {
+                ReviewBulkDeleteResult result = iReviewService.deleteAllByBookId(bookId);
+                log.info("Removed {} reviews of deleted bookId: {} in {} ms",
+                        result.deletedCount(), bookId, result.elapsedMillis());
+            });
+        };
+    }
+
+    @Bean
+    public Consumer<BookEvent> updateBookIndexFromBookEvent(BookExistenceIndex bookExistenceIndex,
+                                                            MeterRegistry meterRegistry) {
+        ConsumerMetrics metrics = new ConsumerMetrics(meterRegistry, "reviews", "updateBookIndexFromBookEvent-in-0");
+
+        return event -> {
+            Long bookId = event.bookId();
+            EventType eventType = event.eventType();
+            log.debug("Received book event '{}' for bookId: {}", eventType, bookId);
+
+            metrics.handle(eventType, () -> {
+                switch (eventType) {
+                    case BOOK_CREATED:
+                        bookExistenceIndex.markCreated(bookId);
+                        break;
+
+                    case BOOK_DELETED:
+                        bookExistenceIndex.markDeleted(bookId);
+                        break;
+
+                    default:
+                        log.warn("Unhandled event type '{}' for bookId: {}", eventType, bookId);
+                }
+            });
         };
     }
 }
@@ -1,9 +1,17 @@
 package com.pavila.mapper;
 
+import com.pavila.dto.PaginatedReviewsResponseDTO;
 import com.pavila.dto.ReviewRequestDTO;
 import com.pavila.dto.ReviewResponseDTO;
+import com.pavila.dto.ReviewSummaryDTO;
 import com.pavila.entity.Review;
+import com.pavila.exception.InvalidCursorException;
+import com.pavila.repository.ReviewRatingSummary;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.List;
 
 public class ReviewMapper {
@@ -31,4 +39,55 @@ public class ReviewMapper {
                 ).toList();
 
     }
+
+    public static ReviewSummaryDTO mapToReviewSummaryDTO(Long bookId, ReviewRatingSummary summary) {
+        long count = summary != null && summary.getReviewCount() != null ? summary.getReviewCount() : 0L;
+        long sum = summary != null && summary.getRatingSum() != null ? summary.getRatingSum() : 0L;
+        double average = summary != null && summary.getAverageRating() != null
+                ? BigDecimal.valueOf(summary.getAverageRating()).setScale(1, RoundingMode.HALF_UP).doubleValue()
+                : 0.0;
+
+        return ReviewSummaryDTO.builder()
+                .bookId(bookId)
+                .reviewCount(count)
+                .ratingSum(sum)
+                .averageRating(average)
+                .build();
+    }
+
+    /**
+     * Builds a keyset page from {@code reviews}, which must hold up to {@code size + 1} rows ordered by id;
+     * the extra row only signals that another page exists.
+     */
+    public static PaginatedReviewsResponseDTO mapToPaginatedDTO(List<Review> reviews, int size) {
+        boolean hasNext = reviews.size() > size;
+        List<Review> page = hasNext ? reviews.subList(0, size) : reviews;
+
+        PaginatedReviewsResponseDTO response = new PaginatedReviewsResponseDTO();
+        response.setContent(mapToReviewResponseDTOList(page));
+        response.setSize(size);
+        response.setHasNext(hasNext);
+        response.setNext(hasNext ? encodeCursor(page.get(page.size() - 1).getId()) : null);
+        return response;
+    }
+
+    public static String encodeCursor(Long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(String.valueOf(lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            long lastId = Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+            if (lastId < 0) {
+                throw new InvalidCursorException("Invalid cursor: " + cursor);
+            }
+            return lastId;
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid cursor: " + cursor);
+        }
+    }
 }
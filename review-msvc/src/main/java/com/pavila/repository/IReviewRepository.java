@@ -1,11 +1,28 @@
 package com.pavila.repository;
 
 import com.pavila.entity.Review;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
 public interface IReviewRepository extends JpaRepository<Review, Long> {
-    List<Review> findByBookId(Long bookId);
-    void deleteByBookId(Long bookId);
+    List<Review> findByBookIdAndIdGreaterThanOrderByIdAsc(Long bookId, Long id, Limit limit);
+
+    @Query("select r.id from Review r where r.bookId = :bookId order by r.id")
+    List<Long> findIdsByBookId(@Param("bookId") Long bookId, Limit limit);
+
+    @Modifying
+    @Query("delete from Review r where r.id in :ids")
+    int deleteAllByIdIn(@Param("ids") List<Long> ids);
+
+    @Query("""
+            select count(r) as reviewCount, sum(r.rating) as ratingSum, avg(r.rating) as averageRating
+            from Review r
+            where r.bookId = :bookId
+            """)
+    ReviewRatingSummary summarizeByBookId(@Param("bookId") Long bookId);
 }
@@ -0,0 +1,7 @@
+package com.pavila.repository;
+
+public interface ReviewRatingSummary {
+    Long getReviewCount();
+    Long getRatingSum();
+    Double getAverageRating();
+}
@@ -0,0 +1,196 @@
+package com.pavila.service.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.discovery.event.HeartbeatEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Local view of which books exist, so creating a review does not need a call to book-msvc.
+ * It is seeded from a paged snapshot of book IDs and kept current by book created/deleted events;
+ * {@link BookFeignClient#exists(Long)} answers every ID the index does not know to exist.
+ * <p>
+ * Book IDs can be reused: book-msvc keeps its books in memory and numbers them from 1 again after a
+ * restart. Entries therefore expire after {@code reviews.book-index.ttl-minutes}, a deleted ID is
+ * re-checked with book-msvc instead of being answered locally, and the index is cleared and seeded
+ * again when the registry shows a book-msvc instance with a {@value #STARTUP_ID} it has not seen.
+ */
+@Slf4j
+@Component
+public class BookExistenceIndex {
+
+    static final String BOOKS_SERVICE = "books";
+    static final String STARTUP_ID = "startup-id";
+
+    private final BookFeignClient bookFeignClient;
+    private final DiscoveryClient discoveryClient;
+    private final TaskExecutor taskExecutor;
+    private final long maxSize;
+    private final int snapshotPageSize;
+    private final Cache<Long, Boolean> existing;
+    // Deleted IDs, so a snapshot page read before the delete does not add them back
+    private final Cache<Long, Boolean> deleted;
+    private final AtomicBoolean seeding = new AtomicBoolean();
+    private final AtomicInteger generation = new AtomicInteger();
+    private volatile Set<String> bookInstances = Set.of();
+    private final Counter localHits;
+    private final Counter localMisses;
+
+    public BookExistenceIndex(BookFeignClient bookFeignClient,
+                              DiscoveryClient discoveryClient,
+                              @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+                              MeterRegistry meterRegistry,
+                              @Value("${reviews.book-index.max-size:1000000}") long maxSize,
+                              @Value("${reviews.book-index.ttl-minutes:60}") long ttlMinutes,
+                              @Value("${reviews.book-index.snapshot-page-size:5000}") int snapshotPageSize) {
+        this.bookFeignClient = bookFeignClient;
+        this.discoveryClient = discoveryClient;
+        this.taskExecutor = taskExecutor;
+        this.maxSize = maxSize;
+        this.snapshotPageSize = snapshotPageSize;
+        this.existing = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .build();
+        this.deleted = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .build();
+        this.localHits = Counter.builder("reviews.book.index.lookups")
+                .description("Book existence checks answered by the local index or by book-msvc")
+                .tag("result", "local")
+                .register(meterRegistry);
+        this.localMisses = Counter.builder("reviews.book.index.lookups")
+                .description("Book existence checks answered by the local index or by book-msvc")
+                .tag("result", "remote")
+                .register(meterRegistry);
+        Gauge.builder("reviews.book.index.size", existing, Cache::estimatedSize)
+                .register(meterRegistry);
+    }
+
+    public boolean exists(Long bookId) {
+        if (existing.getIfPresent(bookId) != null) {
+            localHits.increment();
+            return true;
+        }
+
+        localMisses.increment();
+        boolean exists = Boolean.TRUE.equals(bookFeignClient.exists(bookId).getBody());
+        if (exists) {
+            markCreated(bookId);
+        }
+        return exists;
+    }
+
+    /**
+     * Created events and positive answers from book-msvc are current, so they replace a tombstone
+     * left by an earlier book with the same ID.
+     */
+    public void markCreated(Long bookId) {
+        deleted.invalidate(bookId);
+        existing.put(bookId, Boolean.TRUE);
+    }
+
+    public void markDeleted(Long bookId) {
+        deleted.put(bookId, Boolean.TRUE);
+        existing.invalidate(bookId);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedAsync() {
+        bookInstances = bookInstanceStartupIds();
+        taskExecutor.execute(this::seed);
+    }
+
+    /**
+     * Runs on every refresh of the service registry. A startup ID not seen before means a book-msvc
+     * instance (re)started with a new set of books, so everything the index knows may be stale.
+     * Adding an instance has the same effect, which only costs a new snapshot.
+     */
+    @EventListener(HeartbeatEvent.class)
+    public void onRegistryRefresh() {
+        Set<String> current = bookInstanceStartupIds();
+        Set<String> previous = bookInstances;
+        bookInstances = current;
+        if (previous.containsAll(current)) {
+            return;
+        }
+        log.info("New book-msvc instance registered, reseeding book existence index");
+        generation.incrementAndGet();
+        existing.invalidateAll();
+        deleted.invalidateAll();
+        taskExecutor.execute(this::seed);
+    }
+
+    public void seed() {
+        if (!seeding.compareAndSet(false, true)) {
+            return;
+        }
+        int seedGeneration = generation.get();
+        long afterId = 0L;
+        int loaded = 0;
+        try {
+            while (loaded < maxSize) {
+                if (seedGeneration != generation.get()) {
+                    // Cleared while seeding: start over from the books of the new instance
+                    seedGeneration = generation.get();
+                    afterId = 0L;
+                    loaded = 0;
+                }
+                List<Long> ids = bookFeignClient.findBookIds(afterId, snapshotPageSize).getBody();
+                if (ids == null || ids.isEmpty()) {
+                    break;
+                }
+                for (Long id : ids) {
+                    if (deleted.getIfPresent(id) == null) {
+                        existing.put(id, Boolean.TRUE);
+                    }
+                }
+                loaded += ids.size();
+                afterId = ids.get(ids.size() - 1);
+            }
+            log.info("Book existence index seeded with {} book IDs", loaded);
+        } catch (Exception e) {
+            log.warn("Could not seed book existence index after {} IDs, unknown books fall back to book-msvc: {}",
+                    loaded, e.getMessage());
+        } finally {
+            seeding.set(false);
+        }
+        if (seedGeneration != generation.get()) {
+            // Cleared after the last page was read, while the seed that was requested then was skipped
+            seed();
+        }
+    }
+
+    private Set<String> bookInstanceStartupIds() {
+        try {
+            return discoveryClient.getInstances(BOOKS_SERVICE).stream()
+                    .map(ServiceInstance::getMetadata)
+                    .map(metadata -> metadata.get(STARTUP_ID))
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toUnmodifiableSet());
+        } catch (Exception e) {
+            log.debug("Could not list book-msvc instances: {}", e.getMessage());
+            return bookInstances;
+        }
+    }
+}
@@ -4,10 +4,16 @@ import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.List;
 
 @FeignClient(value = "books", path = "/api")
 public interface BookFeignClient {
 
     @GetMapping( value = "/{id}/exists", consumes = "application/json")
     ResponseEntity<Boolean> exists(@PathVariable Long id);
+
+    @GetMapping( value = "/books/ids", consumes = "application/json")
+    ResponseEntity<List<Long>> findBookIds(@RequestParam Long after, @RequestParam("sz") Integer size);
 }
@@ -1,54 +1,81 @@
 package com.pavila.service.impl;
 
+import com.pavila.commons.outbox.IOutboxService;
 import com.pavila.constants.ReviewConstants;
-import com.pavila.dto.ReviewEvent;
+import com.pavila.dto.PaginatedReviewsResponseDTO;
+import com.pavila.dto.ReviewBulkDeleteResult;
 import com.pavila.dto.ReviewRequestDTO;
-import com.pavila.dto.ReviewResponseDTO;
+import com.pavila.dto.ReviewSummaryDTO;
 import com.pavila.dto.ReviewUpdateDTO;
 import com.pavila.entity.Review;
+import com.pavila.events.EventType;
+import com.pavila.events.ReviewEvent;
 import com.pavila.exception.ResourceNotFoundException;
 import com.pavila.mapper.ReviewMapper;
 import com.pavila.repository.IReviewRepository;
 import com.pavila.service.IReviewService;
-import com.pavila.service.client.BookFeignClient;
+import com.pavila.service.client.BookExistenceIndex;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
 import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
+@Timed("reviews.service")
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ReviewServiceImpl implements IReviewService {
 
     private final IReviewRepository iReviewRepository;
-    private final StreamBridge streamBridge;
-    private final BookFeignClient bookFeignClient;
+    private final IOutboxService outboxService;
+    private final BookExistenceIndex bookExistenceIndex;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${reviews.bulk-delete.chunk-size:1000}")
+    private int bulkDeleteChunkSize;
 
     @Transactional
     @Override
     public void createReview(ReviewRequestDTO reviewRequestDTO) {
         log.info("Attempting to create a new Review with data: {}", reviewRequestDTO);
-        Boolean exists = bookFeignClient.exists(reviewRequestDTO.getBookId()).getBody();
-        if (!Boolean.TRUE.equals(exists)) {
+        if (!bookExistenceIndex.exists(reviewRequestDTO.getBookId())) {
             throw new ResourceNotFoundException("Book not found with id: " + reviewRequestDTO.getBookId());
         }
         Review review = ReviewMapper.mapToEntity(reviewRequestDTO);
         review = iReviewRepository.save(review);
         log.info("Review saved successfully with ID: {}", review.getId());
-        sendCommunication(review.getBookId(), ReviewConstants.REVIEW_CREATED);
+        sendCommunication(review.getBookId(), EventType.REVIEW_CREATED, null, review.getRating(), 1);
     }
 
 
     @Transactional(readOnly = true)
     @Override
-    public List<ReviewResponseDTO> findAllReviewsByBookId(Long bookId) {
-        List<Review> reviews = iReviewRepository.findByBookId(bookId);
-        return ReviewMapper.mapToReviewResponseDTOList(reviews);
+    public PaginatedReviewsResponseDTO findReviewsByBookId(Long bookId, String cursor, Integer size) {
+        int pageSize = size == null ? ReviewConstants.DEFAULT_PAGE_SIZE : Math.min(size, ReviewConstants.MAX_PAGE_SIZE);
+        Long afterId = ReviewMapper.decodeCursor(cursor);
+        log.info("Fetching reviews for bookId {} after id {} with page size {}", bookId, afterId, pageSize);
+
+        List<Review> reviews = iReviewRepository.findByBookIdAndIdGreaterThanOrderByIdAsc(
+                bookId, afterId, Limit.of(pageSize + 1));
+        return ReviewMapper.mapToPaginatedDTO(reviews, pageSize);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public ReviewSummaryDTO getReviewSummaryByBookId(Long bookId) {
+        ReviewSummaryDTO summary = ReviewMapper.mapToReviewSummaryDTO(bookId, iReviewRepository.summarizeByBookId(bookId));
+        log.info("Computed review summary for bookId {}: count={}, sum={}", bookId,
+                summary.getReviewCount(), summary.getRatingSum());
+        return summary;
     }
 
     @Transactional
@@ -58,7 +85,7 @@ public class ReviewServiceImpl implements IReviewService {
                 .orElseThrow(() -> new ResourceNotFoundException("Review not found with id: " + reviewId));
         iReviewRepository.delete(review);
         log.info("Review deleted: {}", reviewId);
-        sendCommunication(review.getBookId(), ReviewConstants.REVIEW_DELETED);
+        sendCommunication(review.getBookId(), EventType.REVIEW_DELETED, review.getRating(), null, -1);
     }
 
     @Transactional
@@ -85,27 +112,51 @@ public class ReviewServiceImpl implements IReviewService {
         }
 
         if (ratingChanged) {
+            Integer oldRating = review.getRating();
             review.setRating(reviewUpdateDTO.getRating());
             log.info("Rating changed for review ID: {}", reviewId);
-            sendCommunication(review.getBookId(), ReviewConstants.RATING_UPDATE);
+            sendCommunication(review.getBookId(), EventType.RATING_UPDATE, oldRating, review.getRating(), 0);
+        } else {
+            sendCommunication(review.getBookId(), EventType.COMMENT_UPDATE, null, null, 0);
         }
 
         iReviewRepository.save(review);
         log.info("Review with ID {} updated successfully", reviewId);
     }
 
-    @Transactional
+    /**
+     * Deletes the reviews of a book in chunks of {@code reviews.bulk-delete.chunk-size} rows, each one
+     * a set-based delete committed in its own transaction, so neither the heap nor the locks grow with
+     * the number of reviews.
+     */
     @Override
-    public void deleteAllByBookId(Long bookId) {
-        log.info("Deleting all reviews for bookId={}", bookId);
-        iReviewRepository.deleteByBookId(bookId);
+    public ReviewBulkDeleteResult deleteAllByBookId(Long bookId) {
+        log.info("Deleting all reviews for bookId={} in chunks of {}", bookId, bulkDeleteChunkSize);
+        long start = System.nanoTime();
+        long deleted = 0;
+        int chunks = 0;
+
+        while (true) {
+            Integer chunkDeleted = transactionTemplate.execute(status -> {
+                List<Long> ids = iReviewRepository.findIdsByBookId(bookId, Limit.of(bulkDeleteChunkSize));
+                return ids.isEmpty() ? 0 : iReviewRepository.deleteAllByIdIn(ids);
+            });
+            if (chunkDeleted == null || chunkDeleted == 0) {
+                break;
+            }
+            deleted += chunkDeleted;
+            chunks++;
+        }
+
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        log.info("Deleted {} reviews for bookId={} in {} chunks and {} ms", deleted, bookId, chunks, elapsedMillis);
+        return new ReviewBulkDeleteResult(bookId, deleted, chunks, elapsedMillis);
     }
 
-    private void sendCommunication(Long bookId, String eventType) {
-        var event = new ReviewEvent(bookId, eventType);
-        log.info("Sending '{}' event for bookId: {}", eventType, bookId);
-        boolean result = streamBridge.send("sendReviewEvent-out-0", event);
-        log.info("Event '{}' sent successfully? {}", eventType, result);
+    private void sendCommunication(Long bookId, EventType eventType, Integer oldRating, Integer newRating, int countDelta) {
+        var event = new ReviewEvent(UUID.randomUUID(), bookId, eventType, oldRating, newRating, countDelta);
+        log.info("Queueing '{}' event for bookId: {}", eventType, bookId);
+        outboxService.enqueue("sendReviewEvent-out-0", bookId, eventType, event);
     }
 
 }
@@ -0,0 +1,10 @@
+create table reviews (
+    id bigint generated by default as identity,
+    book_id bigint,
+    rating integer,
+    comment varchar(255),
+    constraint pk_reviews primary key (id)
+);
+
+-- Covers the keyset listing, the rating summary and the chunked delete by book
+create index idx_reviews_book_id_id_rating on reviews (book_id, id, rating);
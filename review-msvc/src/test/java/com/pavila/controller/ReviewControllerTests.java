@@ -0,0 +1,44 @@
+package com.pavila.controller;
+
+import com.pavila.commons.outbox.IOutboxService;
+import com.pavila.exception.GlobalExceptionHandler;
+import com.pavila.repository.IReviewRepository;
+import com.pavila.service.client.BookExistenceIndex;
+import com.pavila.service.impl.ReviewServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ReviewControllerTests {
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() {
+		var reviewService = new ReviewServiceImpl(mock(IReviewRepository.class), mock(IOutboxService.class),
+				mock(BookExistenceIndex.class), null);
+		mockMvc = MockMvcBuilders.standaloneSetup(new ReviewController(reviewService))
+				.setControllerAdvice(new GlobalExceptionHandler())
+				.build();
+	}
+
+	@Test
+	void invalidCursorIsABadRequest() throws Exception {
+		mockMvc.perform(get("/api/reviews/1").param("cursor", "LTE"))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.errorMessage").value("Invalid cursor: LTE"));
+	}
+
+	@Test
+	void validCursorIsAccepted() throws Exception {
+		mockMvc.perform(get("/api/reviews/1").param("cursor", "NDI"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.hasNext").value(false));
+	}
+}
@@ -0,0 +1,73 @@
+package com.pavila.mapper;
+
+import com.pavila.dto.PaginatedReviewsResponseDTO;
+import com.pavila.entity.Review;
+import com.pavila.exception.InvalidCursorException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReviewMapperTests {
+
+	@Test
+	void cursorRoundTrips() {
+		String cursor = ReviewMapper.encodeCursor(Long.MAX_VALUE);
+
+		assertThat(cursor).doesNotContain("=", "+", "/");
+		assertThat(ReviewMapper.decodeCursor(cursor)).isEqualTo(Long.MAX_VALUE);
+	}
+
+	@Test
+	void missingCursorStartsAtTheBeginning() {
+		assertThat(ReviewMapper.decodeCursor(null)).isZero();
+		assertThat(ReviewMapper.decodeCursor(" ")).isZero();
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {"not base64!", "YWJj", "LTE", "OTk5OTk5OTk5OTk5OTk5OTk5OTk5"})
+	void rejectsMalformedCursors(String cursor) {
+		// "YWJj" is "abc", "LTE" is "-1", the last one overflows a long
+		assertThatThrownBy(() -> ReviewMapper.decodeCursor(cursor))
+				.isInstanceOf(InvalidCursorException.class)
+				.hasMessageContaining(cursor);
+	}
+
+	@Test
+	void acceptsCursorsWrittenWithPadding() {
+		String padded = Base64.getUrlEncoder().encodeToString("42".getBytes(StandardCharsets.UTF_8));
+
+		assertThat(ReviewMapper.decodeCursor(padded)).isEqualTo(42L);
+	}
+
+	@Test
+	void extraRowOnlySignalsTheNextPage() {
+		PaginatedReviewsResponseDTO page = ReviewMapper.mapToPaginatedDTO(reviews(4), 3);
+
+		assertThat(page.getContent()).hasSize(3);
+		assertThat(page.isHasNext()).isTrue();
+		assertThat(ReviewMapper.decodeCursor(page.getNext())).isEqualTo(3L);
+	}
+
+	@Test
+	void fullLastPageHasNoNext() {
+		PaginatedReviewsResponseDTO page = ReviewMapper.mapToPaginatedDTO(reviews(3), 3);
+
+		assertThat(page.getContent()).hasSize(3);
+		assertThat(page.isHasNext()).isFalse();
+		assertThat(page.getNext()).isNull();
+	}
+
+	private static List<Review> reviews(int count) {
+		return LongStream.rangeClosed(1, count)
+				.mapToObj(id -> Review.builder().id(id).bookId(7L).rating(4).build())
+				.toList();
+	}
+}
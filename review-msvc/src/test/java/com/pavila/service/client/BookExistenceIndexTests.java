@@ -0,0 +1,97 @@
+package com.pavila.service.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookExistenceIndexTests {
+
+	private BookFeignClient bookFeignClient;
+	private DiscoveryClient discoveryClient;
+	private BookExistenceIndex index;
+
+	@BeforeEach
+	void setUp() {
+		bookFeignClient = mock(BookFeignClient.class);
+		discoveryClient = mock(DiscoveryClient.class);
+		when(bookFeignClient.findBookIds(anyLong(), anyInt())).thenReturn(ResponseEntity.ok(List.of()));
+		when(discoveryClient.getInstances(BookExistenceIndex.BOOKS_SERVICE)).thenReturn(List.of(books("a")));
+		index = new BookExistenceIndex(bookFeignClient, discoveryClient, new SyncTaskExecutor(),
+				new SimpleMeterRegistry(), 1000, 60, 2);
+	}
+
+	@Test
+	void seededBooksAreAnsweredLocally() {
+		when(bookFeignClient.findBookIds(0L, 2)).thenReturn(ResponseEntity.ok(List.of(1L, 2L)));
+		when(bookFeignClient.findBookIds(2L, 2)).thenReturn(ResponseEntity.ok(List.of(3L)));
+
+		index.seedAsync();
+
+		assertThat(index.exists(1L)).isTrue();
+		assertThat(index.exists(3L)).isTrue();
+		verify(bookFeignClient, never()).exists(anyLong());
+	}
+
+	@Test
+	void deletedBookIsCheckedAgainWithBookService() {
+		index.markCreated(1L);
+		index.markDeleted(1L);
+		when(bookFeignClient.exists(1L)).thenReturn(ResponseEntity.ok(true));
+
+		assertThat(index.exists(1L)).isTrue();
+		assertThat(index.exists(1L)).isTrue();
+		verify(bookFeignClient).exists(1L);
+	}
+
+	@Test
+	void seedDoesNotRestoreDeletedBooks() {
+		index.markDeleted(1L);
+		when(bookFeignClient.findBookIds(0L, 2)).thenReturn(ResponseEntity.ok(List.of(1L)));
+		when(bookFeignClient.exists(1L)).thenReturn(ResponseEntity.ok(false));
+
+		index.seed();
+
+		assertThat(index.exists(1L)).isFalse();
+	}
+
+	@Test
+	void restartOfBookServiceClearsAndReseedsTheIndex() {
+		index.seedAsync();
+		index.markCreated(7L);
+		index.markDeleted(8L);
+
+		index.onRegistryRefresh();
+		verify(bookFeignClient).findBookIds(eq(0L), anyInt());
+
+		when(discoveryClient.getInstances(BookExistenceIndex.BOOKS_SERVICE)).thenReturn(List.of(books("b")));
+		when(bookFeignClient.findBookIds(0L, 2)).thenReturn(ResponseEntity.ok(List.of(8L)));
+		when(bookFeignClient.exists(7L)).thenReturn(ResponseEntity.ok(false));
+		index.onRegistryRefresh();
+
+		assertThat(index.exists(8L)).isTrue();
+		assertThat(index.exists(7L)).isFalse();
+		verify(bookFeignClient, never()).exists(8L);
+	}
+
+	private static ServiceInstance books(String startupId) {
+		return new DefaultServiceInstance("books-1", BookExistenceIndex.BOOKS_SERVICE, "localhost", 8000, false,
+				Map.of(BookExistenceIndex.STARTUP_ID, startupId));
+	}
+}